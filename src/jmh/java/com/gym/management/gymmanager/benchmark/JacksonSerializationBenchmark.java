@@ -0,0 +1,84 @@
+package com.gym.management.gymmanager.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gym.management.gymmanager.model.Gym;
+import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.model.Trainer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Сериализация тех графов, что отдают контроллеры: один клиент, тренер с клиентами, список клиентов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+    @Param({"10", "1000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectWriter personWriter;
+    private ObjectWriter trainerWriter;
+    private ObjectWriter listWriter;
+    private Person person;
+    private Trainer trainer;
+    private List<Person> people;
+
+    @Setup
+    public void setUp() {
+        Gym gym = new Gym("Fitness", "Main street 1", "101");
+        gym.setId(1L);
+        trainer = new Trainer();
+        trainer.setId(1L);
+        trainer.setName("Trainer");
+        trainer.setTrainingType("Strength");
+        trainer.setGender("F");
+        people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Person p = new Person();
+            p.setId((long) i);
+            p.setName("Person " + i);
+            p.setPhoneNumber("+37529" + (1_000_000 + i));
+            p.setGym(gym);
+            p.setTrainer(trainer);
+            people.add(p);
+        }
+        trainer.setPersons(people);
+        person = people.get(0);
+
+        personWriter = objectMapper.writerFor(Person.class);
+        trainerWriter = objectMapper.writerFor(Trainer.class);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Person.class));
+    }
+
+    @Benchmark
+    public byte[] person() throws JsonProcessingException {
+        return personWriter.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public byte[] trainerWithPersons() throws JsonProcessingException {
+        return trainerWriter.writeValueAsBytes(trainer);
+    }
+
+    @Benchmark
+    public byte[] personList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(people);
+    }
+}
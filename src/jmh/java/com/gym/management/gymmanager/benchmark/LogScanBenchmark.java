@@ -0,0 +1,145 @@
+package com.gym.management.gymmanager.benchmark;
+
+import com.gym.management.gymmanager.logging.LogFileIndex;
+import com.gym.management.gymmanager.logging.LogQuery;
+import com.gym.management.gymmanager.logging.LogSearchEngine;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Выборка логов за час из синтетического каталога с DAYS ротированными файлами общим
+ * объёмом fileMb: построчный скан с line.contains (как было в LogService) против
+ * индексированного LogSearchEngine. Объём задаётся -p fileMb=4096 для многогигабайтных прогонов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LogScanBenchmark {
+    private static final int DAYS = 4;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 4, 1);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Param({"256"})
+    public int fileMb;
+
+    private Path directory;
+    private LogSearchEngine engine;
+    private LogQuery hourQuery;
+    private String legacyNeedle;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("log-scan-benchmark");
+        long bytesPerDay = fileMb * 1024L * 1024L / DAYS;
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            writeDay(directory.resolve("application-" + date + ".log"), date, bytesPerDay);
+        }
+        engine = new LogSearchEngine(directory.toString());
+        LocalDateTime from = FIRST_DAY.plusDays(DAYS / 2).atTime(18, 0);
+        hourQuery = new LogQuery(from, from.plusHours(1), null);
+        legacyNeedle = from.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH"));
+        // Индексы строятся один раз, дальше меряется только выборка
+        engine.extract(hourQuery, new DiscardingChannel());
+    }
+
+    private static void writeDay(Path file, LocalDate date, long bytes) throws IOException {
+        long written = 0;
+        int line = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            long linesPerDay = Math.max(1, bytes / 110);
+            while (written < bytes) {
+                long second = line * 86_400L / linesPerDay;
+                String text = date.atStartOfDay().plusSeconds(Math.min(second, 86_399)).format(TIMESTAMP)
+                        + (line % 50 == 0 ? " WARN  " : " INFO  ")
+                        + "[http-nio-8080-exec-" + (line % 10) + "] c.g.m.g.service.PersonService - request "
+                        + line + '\n';
+                writer.write(text);
+                written += text.length();
+                line++;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long legacyLineScan() throws IOException {
+        long matched = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.contains(legacyNeedle)) {
+                            matched += line.length() + 1;
+                        }
+                    }
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public long indexedExtract() throws IOException {
+        return engine.extract(hourQuery, new DiscardingChannel());
+    }
+
+    @Benchmark
+    public long buildIndex() throws IOException {
+        return LogFileIndex.build(directory.resolve("application-" + FIRST_DAY + ".log")).getIndexedSize();
+    }
+
+    // Приёмник без записи на диск, чтобы мерить поиск и чтение, а не вывод
+    private static final class DiscardingChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int remaining = src.remaining();
+            src.position(src.limit());
+            return remaining;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
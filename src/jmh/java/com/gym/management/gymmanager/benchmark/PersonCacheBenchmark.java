@@ -0,0 +1,98 @@
+package com.gym.management.gymmanager.benchmark;
+
+import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.model.Person;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Пропускная способность PersonCache при 1, 16 и 64 потоках и при смешанной нагрузке 7:1
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonCacheBenchmark {
+    private static final int PERSONS = 10_000;
+
+    private PersonCache cache;
+    private Person[] persons;
+
+    @Setup
+    public void setUp() {
+        cache = new PersonCache(PERSONS * 2L, Duration.ofMinutes(10));
+        persons = new Person[PERSONS];
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = new Person();
+            person.setId((long) i);
+            person.setName("Person " + i);
+            persons[i] = person;
+            cache.putToIdCache((long) i, person);
+        }
+    }
+
+    private Long randomId() {
+        return (long) ThreadLocalRandom.current().nextInt(PERSONS);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Person get1Thread() {
+        return cache.getPersonByIdCache(randomId());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Person get16Threads() {
+        return cache.getPersonByIdCache(randomId());
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Person get64Threads() {
+        return cache.getPersonByIdCache(randomId());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void put1Thread() {
+        int id = ThreadLocalRandom.current().nextInt(PERSONS);
+        cache.putToIdCache((long) id, persons[id]);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void put64Threads() {
+        int id = ThreadLocalRandom.current().nextInt(PERSONS);
+        cache.putToIdCache((long) id, persons[id]);
+    }
+
+    @Benchmark
+    @Group("mixed64")
+    @GroupThreads(56)
+    public Person mixedRead() {
+        return cache.getPersonByIdCache(randomId());
+    }
+
+    @Benchmark
+    @Group("mixed64")
+    @GroupThreads(8)
+    public void mixedWrite() {
+        int id = ThreadLocalRandom.current().nextInt(PERSONS);
+        cache.putToIdCache((long) id, persons[id]);
+    }
+}
@@ -0,0 +1,80 @@
+package com.gym.management.gymmanager.benchmark;
+
+import com.gym.management.gymmanager.cache.GymCache;
+import com.gym.management.gymmanager.cache.GymTypeQueryCache;
+import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.cache.TrainerCache;
+import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.repository.GymRepository;
+import com.gym.management.gymmanager.repository.PersonRepository;
+import com.gym.management.gymmanager.repository.TrainerRepository;
+import com.gym.management.gymmanager.service.PersonService;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Накладные расходы PersonService.getPersonById без базы: репозиторий подменён заглушкой,
+ * которая сразу отдаёт объект, поэтому промах показывает стоимость пути загрузки и
+ * заполнения кеша, а не запроса к PostgreSQL.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonServiceBenchmark {
+    private static final Long ID = 42L;
+
+    private PersonService personService;
+    private PersonCache personCache;
+
+    @Setup
+    public void setUp() {
+        Person person = new Person();
+        person.setId(ID);
+        person.setName("Benchmark Person");
+
+        PersonRepository personRepository = stub(PersonRepository.class, Optional.of(person));
+        personCache = new PersonCache(10_000, Duration.ofMinutes(10));
+        personService = new PersonService(personRepository, personCache,
+                stub(TrainerRepository.class, Optional.empty()), stub(GymRepository.class, Optional.empty()),
+                new TrainerCache(1000, Duration.ofMinutes(30)), new GymCache(1000, Duration.ofMinutes(30)),
+                new GymTypeQueryCache(1000, Duration.ofSeconds(30)), null, null, null);
+        personService.getPersonById(ID);
+    }
+
+    // Заглушка репозитория: любой findById возвращает заданный результат
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Optional<?> findByIdResult) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getName().equals("findById")) {
+                return findByIdResult;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @Benchmark
+    public Person getPersonByIdCacheHit() {
+        return personService.getPersonById(ID);
+    }
+
+    @Benchmark
+    public Person getPersonByIdCacheMiss() {
+        personCache.removeFromIdCache(ID);
+        return personService.getPersonById(ID);
+    }
+}
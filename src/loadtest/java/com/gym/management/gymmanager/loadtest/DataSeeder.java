@@ -0,0 +1,57 @@
+package com.gym.management.gymmanager.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Наполнение пустой схемы через generate_series прямо в PostgreSQL: миллионы строк
+ * заливаются за секунды, без передачи данных по сети и без Hibernate.
+ * Абонементы получает только первая часть клиентов, остальные — цели для назначения под нагрузкой.
+ */
+final class DataSeeder {
+    private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
+    private static final long CHUNK = 500_000;
+    private static final int GYMS = 1_000;
+    private static final int TRAINERS = 5_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DataSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Возвращает ID первого клиента без абонемента
+    long seed(long rows) {
+        long started = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO gym (type, address, number) "
+                + "SELECT (ARRAY['FITNESS', 'YOGA', 'CROSSFIT', 'SWIMMING'])[1 + g % 4], "
+                + "'Load street ' || g, 'G-' || g FROM generate_series(1, ?) g", GYMS);
+        jdbcTemplate.update("INSERT INTO trainer (name, training_type, gender) "
+                + "SELECT 'Trainer ' || g, (ARRAY['STRENGTH', 'CARDIO', 'STRETCHING'])[1 + g % 3], "
+                + "CASE WHEN g % 2 = 0 THEN 'F' ELSE 'M' END FROM generate_series(1, ?) g", TRAINERS);
+        long firstGym = jdbcTemplate.queryForObject("SELECT MIN(id) FROM gym", Long.class);
+        long firstTrainer = jdbcTemplate.queryForObject("SELECT MIN(id) FROM trainer", Long.class);
+
+        // Кусками, чтобы не держать одну транзакцию на всю заливку
+        for (long from = 1; from <= rows; from += CHUNK) {
+            long to = Math.min(from + CHUNK - 1, rows);
+            jdbcTemplate.update("INSERT INTO person (id, name, phone_number, trainer_id, gym_id) "
+                    + "SELECT g, 'Client ' || g, '+375' || lpad(g::text, 9, '0'), "
+                    + "? + g % ?, ? + g % ? FROM generate_series(?, ?) g",
+                    firstTrainer, TRAINERS, firstGym, GYMS, from, to);
+        }
+
+        long firstFree = rows / 10 + 1;
+        jdbcTemplate.update("INSERT INTO membership (type, start_date, end_date, person_id) "
+                + "SELECT 'MONTH', current_date - (g % 365)::int, current_date - (g % 365)::int + 30, g "
+                + "FROM generate_series(1, ?) g", firstFree - 1);
+
+        // Hibernate выдаёт ID клиентов блоками из person_seq: сдвигаем её за залитые строки
+        jdbcTemplate.queryForObject("SELECT setval('person_seq', ? + 50)", Long.class, rows);
+        jdbcTemplate.execute("ANALYZE");
+        logger.info("Seeded {} persons, {} gyms, {} trainers in {} s", rows, GYMS, TRAINERS,
+                (System.nanoTime() - started) / 1_000_000_000);
+        return firstFree;
+    }
+}
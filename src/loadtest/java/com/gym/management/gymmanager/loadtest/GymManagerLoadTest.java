@@ -0,0 +1,100 @@
+package com.gym.management.gymmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный прогон приложения целиком: реальный Tomcat, Hibernate, Hikari и PostgreSQL
+ * той же версии, что в docker-compose. Результат — JSON-отчёт с пропускной способностью,
+ * перцентилями по операциям и статистикой GC/аллокаций за окно замера.
+ */
+@Tag("loadtest")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class GymManagerLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(GymManagerLoadTest.class);
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:17")
+            .withCommand("postgres", "-c", "shared_buffers=512MB");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        long firstFree = new DataSeeder(jdbcTemplate).seed(settings.rows());
+
+        LoadDriver driver = new LoadDriver(URI.create("http://localhost:" + port), settings, firstFree);
+        AtomicReference<JvmStats> before = new AtomicReference<>();
+        driver.run(() -> {
+            System.gc();
+            before.set(JvmStats.capture());
+        });
+        JvmStats after = JvmStats.capture();
+
+        double seconds = settings.duration().toMillis() / 1000.0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, LoadDriver.OperationStats> entry : driver.getStats().entrySet()) {
+            Map<String, Object> summary = LoadDriver.summarize(entry.getValue(), seconds);
+            operations.put(entry.getKey().name(), summary);
+            totalRequests += (Long) summary.get("requests");
+            totalErrors += (Long) summary.get("errors");
+            logger.info("{} {}", entry.getKey(), summary);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("profile", settings.profile());
+        report.put("weights", settings.profile().weights());
+        report.put("rows", settings.rows());
+        report.put("threads", settings.threads());
+        report.put("warmup", settings.warmup().toString());
+        report.put("duration", settings.duration().toString());
+        report.put("throughputPerSec", totalRequests / seconds);
+        report.put("operations", operations);
+        report.put("jvm", after.since(before.get(), seconds, driver.getDriverAllocatedBytes()));
+        Path file = writeReport(settings, report);
+        logger.info("Load test report written to {}", file.toAbsolutePath());
+
+        assertTrue(totalRequests > 0, "Нагрузка не дошла до приложения");
+        assertEquals(0, totalErrors, "Ошибки под нагрузкой, подробности в " + file);
+    }
+
+    private static Path writeReport(LoadTestSettings settings, Map<String, Object> report) throws IOException {
+        Files.createDirectories(settings.reportDirectory());
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = settings.reportDirectory().resolve(settings.profile().name().toLowerCase() + "-" + stamp + ".json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        return file;
+    }
+}
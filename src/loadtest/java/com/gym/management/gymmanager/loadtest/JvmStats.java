@@ -0,0 +1,71 @@
+package com.gym.management.gymmanager.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Снимок GC и аллокаций JVM. Приложение и нагрузчик живут в одной JVM, поэтому
+ * аллокации считаются по всем потокам, а долю нагрузчика отчёт вычитает отдельно.
+ */
+record JvmStats(Map<String, long[]> collectors, long allocatedBytes, long heapUsedBytes) {
+
+    static JvmStats capture() {
+        Map<String, long[]> collectors = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            collectors.put(bean.getName(), new long[]{bean.getCollectionCount(), bean.getCollectionTime()});
+        }
+        return new JvmStats(collectors, liveThreadsAllocatedBytes(),
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    // Только живые потоки: на Java 17 нет счётчика с учётом завершившихся. Потоки Tomcat,
+    // Hikari и нагрузчика живут весь прогон, так что потеря невелика.
+    private static long liveThreadsAllocatedBytes() {
+        com.sun.management.ThreadMXBean bean = threadBean();
+        long total = 0;
+        for (long bytes : bean.getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    static long currentThreadAllocatedBytes() {
+        return threadBean().getCurrentThreadAllocatedBytes();
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    // Разница между снимками в виде, пригодном для JSON-отчёта
+    Map<String, Object> since(JvmStats before, double seconds, long driverAllocatedBytes) {
+        Map<String, Object> gc = new LinkedHashMap<>();
+        long totalCount = 0;
+        long totalTime = 0;
+        for (Map.Entry<String, long[]> entry : collectors.entrySet()) {
+            long[] previous = before.collectors.getOrDefault(entry.getKey(), new long[2]);
+            long count = entry.getValue()[0] - previous[0];
+            long time = entry.getValue()[1] - previous[1];
+            totalCount += count;
+            totalTime += time;
+            gc.put(entry.getKey(), Map.of("count", count, "timeMs", time));
+        }
+
+        long allocated = allocatedBytes - before.allocatedBytes;
+        long appAllocated = allocated - driverAllocatedBytes;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("gcCount", totalCount);
+        result.put("gcTimeMs", totalTime);
+        result.put("gcTimeShare", seconds > 0 ? totalTime / (seconds * 1000) : 0);
+        result.put("collectors", gc);
+        result.put("allocatedBytes", allocated);
+        result.put("driverAllocatedBytes", driverAllocatedBytes);
+        result.put("appAllocationMbPerSec", seconds > 0 ? appAllocated / seconds / (1024 * 1024) : 0);
+        result.put("heapUsedBytesAfter", heapUsedBytes);
+        return result;
+    }
+}
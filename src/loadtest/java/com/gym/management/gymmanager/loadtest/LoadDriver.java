@@ -0,0 +1,218 @@
+package com.gym.management.gymmanager.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Замкнутая нагрузка: threads потоков шлют запросы друг за другом без пауз, каждый раз
+ * выбирая операцию по весам профиля. Сначала прогрев, его результаты отбрасываются,
+ * затем замер. Латентность пишется в HdrHistogram в микросекундах.
+ */
+final class LoadDriver {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    static final class OperationStats {
+        final Recorder latency = new Recorder(3);
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        // 429 от ограниченного пула выгрузок логов — штатный отказ, не ошибка
+        final LongAdder rejected = new LongAdder();
+        Histogram measured;
+
+        void reset() {
+            latency.getIntervalHistogram();
+            ok.reset();
+            errors.reset();
+            rejected.reset();
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    // Клиенты без абонемента раздаются по порядку, чтобы не упираться в уникальность person_id
+    private final AtomicLong nextMembershipTarget;
+    private final LongAdder driverAllocatedBytes = new LongAdder();
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    LoadDriver(URI baseUri, LoadTestSettings settings, long firstPersonWithoutMembership) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.nextMembershipTarget = new AtomicLong(firstPersonWithoutMembership);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    Map<Operation, OperationStats> getStats() {
+        return stats;
+    }
+
+    long getDriverAllocatedBytes() {
+        return driverAllocatedBytes.sum();
+    }
+
+    // Блокирует на время прогрева, вызывает onMeasureStart и блокирует на время замера
+    void run(Runnable onMeasureStart) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.threads());
+        for (int i = 0; i < settings.threads(); i++) {
+            workers.execute(this::work);
+        }
+
+        logger.info("Warming up for {} with {} threads ({})", settings.warmup(), settings.threads(), settings.profile());
+        Thread.sleep(settings.warmup().toMillis());
+        stats.values().forEach(OperationStats::reset);
+        onMeasureStart.run();
+        measuring = true;
+
+        logger.info("Measuring for {}", settings.duration());
+        Thread.sleep(settings.duration().toMillis());
+        stopped = true;
+        for (OperationStats operationStats : stats.values()) {
+            operationStats.measured = operationStats.latency.getIntervalHistogram();
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private void work() {
+        Random random = ThreadLocalRandom.current();
+        long allocatedMark = -1;
+        while (!stopped) {
+            if (measuring && allocatedMark < 0) {
+                allocatedMark = JvmStats.currentThreadAllocatedBytes();
+            }
+            Operation operation = settings.profile().pick(random);
+            HttpRequest request = buildRequest(operation, random);
+            if (request == null) {
+                operation = Operation.PERSON_READ;
+                request = buildRequest(operation, random);
+            }
+            execute(operation, request);
+        }
+        if (allocatedMark >= 0) {
+            driverAllocatedBytes.add(JvmStats.currentThreadAllocatedBytes() - allocatedMark);
+        }
+    }
+
+    private void execute(Operation operation, HttpRequest request) {
+        OperationStats operationStats = stats.get(operation);
+        long started = System.nanoTime();
+        int status;
+        try {
+            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+            return;
+        }
+        if (stopped) {
+            return;
+        }
+        operationStats.latency.recordValue((System.nanoTime() - started) / 1_000);
+        if (status >= 200 && status < 300) {
+            operationStats.ok.increment();
+        } else if (status == 429) {
+            operationStats.rejected.increment();
+        } else {
+            operationStats.errors.increment();
+        }
+    }
+
+    // null — для операции не осталось данных (кончились клиенты без абонемента)
+    private HttpRequest buildRequest(Operation operation, Random random) {
+        switch (operation) {
+            case PERSON_READ:
+                return get("/api/persons/" + (1 + random.nextLong(settings.rows())));
+            case PERSON_BULK:
+                return post("/api/persons/bulk", bulkBody(random));
+            case MEMBERSHIP_ASSIGN:
+                long personId = nextMembershipTarget.getAndIncrement();
+                if (personId > settings.rows()) {
+                    return null;
+                }
+                LocalDate start = LocalDate.now();
+                return post("/api/memberships/person/" + personId,
+                        "{\"type\":\"MONTH\",\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusDays(30) + "\"}");
+            case LOG_GENERATE:
+                return post("/api/logs/generate?level=WARN", null);
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private String bulkBody(Random random) {
+        StringBuilder body = new StringBuilder(settings.bulkSize() * 64).append('[');
+        for (int i = 0; i < settings.bulkSize(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            int suffix = random.nextInt(1_000_000_000);
+            body.append("{\"name\":\"Load client ").append(suffix)
+                    .append("\",\"phoneNumber\":\"+375").append(suffix).append("\"}");
+        }
+        return body.append(']').toString();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (json == null) {
+            return builder.POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    // Пропускная способность и перцентили по операции за окно замера
+    static Map<String, Object> summarize(OperationStats operationStats, double seconds) {
+        Histogram histogram = operationStats.measured;
+        long requests = operationStats.ok.sum() + operationStats.errors.sum() + operationStats.rejected.sum();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        latency.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        latency.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        latency.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        latency.put("max", histogram.getMaxValue() / 1000.0);
+        latency.put("mean", histogram.getMean() / 1000.0);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", requests);
+        result.put("errors", operationStats.errors.sum());
+        result.put("rejected", operationStats.rejected.sum());
+        result.put("throughputPerSec", seconds > 0 ? requests / seconds : 0);
+        result.put("latencyMs", latency);
+        return result;
+    }
+}
@@ -0,0 +1,25 @@
+package com.gym.management.gymmanager.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Параметры прогона приходят системными свойствами из профиля loadtest в pom.xml
+record LoadTestSettings(WorkloadProfile profile,
+                        long rows,
+                        int threads,
+                        Duration warmup,
+                        Duration duration,
+                        int bulkSize,
+                        Path reportDirectory) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                WorkloadProfile.valueOf(System.getProperty("loadtest.profile", "READ_HEAVY")),
+                Long.getLong("loadtest.rows", 1_000_000L),
+                Integer.getInteger("loadtest.threads", 32),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT20S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.getInteger("loadtest.bulk-size", 50),
+                Path.of(System.getProperty("loadtest.report-directory", "target/loadtest")));
+    }
+}
@@ -0,0 +1,9 @@
+package com.gym.management.gymmanager.loadtest;
+
+// Операции смешанной нагрузки; каждая получает свою гистограмму и счётчики в отчёте
+enum Operation {
+    PERSON_READ,
+    PERSON_BULK,
+    MEMBERSHIP_ASSIGN,
+    LOG_GENERATE
+}
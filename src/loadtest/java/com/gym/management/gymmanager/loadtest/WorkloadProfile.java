@@ -0,0 +1,48 @@
+package com.gym.management.gymmanager.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Доли операций в нагрузке. Каждый поток выбирает следующую операцию случайно
+ * по весам, поэтому соотношение держится и на коротких прогонах.
+ */
+enum WorkloadProfile {
+    READ_HEAVY(90, 4, 5, 1),
+    MIXED(60, 20, 15, 5),
+    WRITE_HEAVY(30, 45, 20, 5);
+
+    private final Operation[] operations = Operation.values();
+    private final int[] cumulative;
+
+    WorkloadProfile(int read, int bulk, int membership, int logs) {
+        int[] weights = {read, bulk, membership, logs};
+        cumulative = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+    }
+
+    Operation pick(Random random) {
+        int roll = random.nextInt(cumulative[cumulative.length - 1]);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weights exhausted for roll " + roll);
+    }
+
+    Map<Operation, Integer> weights() {
+        Map<Operation, Integer> result = new EnumMap<>(Operation.class);
+        int previous = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            result.put(operations[i], cumulative[i] - previous);
+            previous = cumulative[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gym.management.gymmanager.analytics;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.util.Locale;
+
+public enum Granularity {
+    MINUTE(60),
+    HOUR(3600);
+
+    private final long seconds;
+
+    Granularity(long seconds) {
+        this.seconds = seconds;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    public long bucketOf(long epochSecond) {
+        return Math.floorDiv(epochSecond, seconds);
+    }
+
+    public static Granularity parse(String value) {
+        if (value == null || value.isBlank()) {
+            return MINUTE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Неизвестная гранулярность: " + value);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.gym.management.gymmanager.analytics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Кольцо счётчиков фиксированной длины: слот хранит корзину с номером интервала,
+ * устаревшая корзина заменяется новой через CAS. Счёт внутри корзины — {@link LongAdder},
+ * так что параллельные инкременты одной минуты не бьются за одну кэш-линию.
+ */
+final class RollingCounter {
+
+    static final class Bucket {
+        final long index;
+        final LongAdder count = new LongAdder();
+        // Сколько из count уже записано в БД; меняет только поток чекпоинта
+        volatile long persisted;
+
+        Bucket(long index) {
+            this.index = index;
+        }
+    }
+
+    private final AtomicReferenceArray<Bucket> slots;
+
+    RollingCounter(int size) {
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    int size() {
+        return slots.length();
+    }
+
+    // null, если интервал уже вытеснен из кольца более новым
+    Bucket bucket(long index) {
+        int slot = (int) Math.floorMod(index, (long) slots.length());
+        Bucket current = slots.get(slot);
+        while (current == null || current.index != index) {
+            if (current != null && current.index > index) {
+                return null;
+            }
+            Bucket fresh = new Bucket(index);
+            if (slots.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+            current = slots.get(slot);
+        }
+        return current;
+    }
+
+    void add(long index, long delta) {
+        Bucket bucket = bucket(index);
+        if (bucket != null) {
+            bucket.count.add(delta);
+        }
+    }
+
+    long count(long index) {
+        Bucket bucket = slots.get((int) Math.floorMod(index, (long) slots.length()));
+        return bucket != null && bucket.index == index ? bucket.count.sum() : 0;
+    }
+
+    Bucket existing(long index) {
+        Bucket bucket = slots.get((int) Math.floorMod(index, (long) slots.length()));
+        return bucket != null && bucket.index == index ? bucket : null;
+    }
+
+    void forEach(Consumer<Bucket> action) {
+        for (int i = 0; i < slots.length(); i++) {
+            Bucket bucket = slots.get(i);
+            if (bucket != null) {
+                action.accept(bucket);
+            }
+        }
+    }
+}
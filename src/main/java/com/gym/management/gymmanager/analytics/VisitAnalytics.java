@@ -0,0 +1,160 @@
+package com.gym.management.gymmanager.analytics;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики посещений в разрезе эндпоинта и зала: общий итог плюс скользящие окна
+ * по минутам и по часам. Запись не берёт блокировок; чтение суммирует корзины на лету.
+ * Время передаётся снаружи в секундах эпохи, чтобы движок не зависел от часов.
+ */
+public class VisitAnalytics {
+    public static final int MINUTE_WINDOW = 180;
+    public static final int HOUR_WINDOW = 48;
+
+    // Прирост счёта за минуту, ещё не записанный в БД
+    public record MinuteCount(VisitKey key, long minute, long delta) {
+    }
+
+    private static final class Series {
+        final LongAdder total = new LongAdder();
+        final RollingCounter minutes = new RollingCounter(MINUTE_WINDOW);
+        final RollingCounter hours = new RollingCounter(HOUR_WINDOW);
+    }
+
+    private final Map<VisitKey, Series> series = new ConcurrentHashMap<>();
+
+    private Series seriesFor(VisitKey key) {
+        Series existing = series.get(key);
+        return existing != null ? existing : series.computeIfAbsent(key, k -> new Series());
+    }
+
+    public void record(VisitKey key, long epochSecond) {
+        Series target = seriesFor(key);
+        target.total.increment();
+        target.minutes.add(Granularity.MINUTE.bucketOf(epochSecond), 1);
+        target.hours.add(Granularity.HOUR.bucketOf(epochSecond), 1);
+    }
+
+    // Восстановление после рестарта: итог из БД и минутные записи последних суток.
+    // Восстановленные минуты сразу помечаются записанными, чтобы не продублировать их в БД.
+    public void restoreTotal(VisitKey key, long total) {
+        seriesFor(key).total.add(total);
+    }
+
+    public void restoreMinute(VisitKey key, long minute, long count) {
+        Series target = seriesFor(key);
+        RollingCounter.Bucket bucket = target.minutes.bucket(minute);
+        if (bucket != null) {
+            bucket.count.add(count);
+            bucket.persisted += count;
+        }
+        target.hours.add(Math.floorDiv(minute * 60, Granularity.HOUR.getSeconds()), count);
+    }
+
+    // Минуты, где счёт вырос с прошлой записи; delta — прирост, который нужно добавить в БД
+    public List<MinuteCount> unpersistedMinutes() {
+        List<MinuteCount> result = new ArrayList<>();
+        series.forEach((key, target) -> target.minutes.forEach(bucket -> {
+            long delta = bucket.count.sum() - bucket.persisted;
+            if (delta > 0) {
+                result.add(new MinuteCount(key, bucket.index, delta));
+            }
+        }));
+        return result;
+    }
+
+    public void markPersisted(List<MinuteCount> written) {
+        for (MinuteCount row : written) {
+            Series target = series.get(row.key());
+            RollingCounter.Bucket bucket = target != null ? target.minutes.existing(row.minute()) : null;
+            if (bucket != null) {
+                bucket.persisted += row.delta();
+            }
+        }
+    }
+
+    public long total(String endpoint, Long gymId) {
+        long sum = 0;
+        for (Map.Entry<VisitKey, Series> entry : series.entrySet()) {
+            if (entry.getKey().matches(endpoint, gymId)) {
+                sum += entry.getValue().total.sum();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Счёт по последним window интервалам, включая текущий незавершённый,
+     * от старого к новому.
+     */
+    public long[] series(String endpoint, Long gymId, Granularity granularity, int window, long nowEpochSecond) {
+        checkWindow(window, capacity(granularity));
+        return collect(endpoint, gymId, granularity, window, nowEpochSecond);
+    }
+
+    private static int capacity(Granularity granularity) {
+        return granularity == Granularity.MINUTE ? MINUTE_WINDOW : HOUR_WINDOW;
+    }
+
+    private static void checkWindow(int window, int max) {
+        if (window < 1 || window > max) {
+            throw new ValidationException("Окно должно быть от 1 до " + max);
+        }
+    }
+
+    private long[] collect(String endpoint, Long gymId, Granularity granularity, int window, long nowEpochSecond) {
+        long current = granularity.bucketOf(nowEpochSecond);
+        long[] counts = new long[window];
+        for (Map.Entry<VisitKey, Series> entry : series.entrySet()) {
+            if (!entry.getKey().matches(endpoint, gymId)) {
+                continue;
+            }
+            RollingCounter counter = granularity == Granularity.MINUTE
+                    ? entry.getValue().minutes
+                    : entry.getValue().hours;
+            for (int i = 0; i < window; i++) {
+                counts[i] += counter.count(current - window + 1 + i);
+            }
+        }
+        return counts;
+    }
+
+    // Средняя частота за последние завершённые интервалы: текущий неполный исказил бы оценку
+    public double ratePerInterval(String endpoint, Long gymId, Granularity granularity, int window,
+                                  long nowEpochSecond) {
+        checkWindow(window, capacity(granularity) - 1);
+        long[] counts = collect(endpoint, gymId, granularity, window + 1, nowEpochSecond);
+        long sum = 0;
+        for (int i = 0; i < window; i++) {
+            sum += counts[i];
+        }
+        return (double) sum / window;
+    }
+
+    // Перцентили нагрузки на интервал (nearest-rank) по завершённым интервалам окна
+    public Map<String, Long> percentiles(String endpoint, Long gymId, Granularity granularity, int window,
+                                         long nowEpochSecond) {
+        checkWindow(window, capacity(granularity) - 1);
+        long[] counts = collect(endpoint, gymId, granularity, window + 1, nowEpochSecond);
+        long[] sorted = Arrays.copyOf(counts, window);
+        Arrays.sort(sorted);
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("p50", nearestRank(sorted, 0.50));
+        result.put("p90", nearestRank(sorted, 0.90));
+        result.put("p99", nearestRank(sorted, 0.99));
+        result.put("max", sorted[sorted.length - 1]);
+        return result;
+    }
+
+    private static long nearestRank(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
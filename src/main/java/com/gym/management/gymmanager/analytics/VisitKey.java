@@ -0,0 +1,15 @@
+package com.gym.management.gymmanager.analytics;
+
+// Разрез счётчика посещений: эндпоинт и зал (NO_GYM, если зал неизвестен)
+public record VisitKey(String endpoint, long gymId) {
+    public static final long NO_GYM = 0L;
+
+    public static VisitKey of(String endpoint, Long gymId) {
+        return new VisitKey(endpoint, gymId != null ? gymId : NO_GYM);
+    }
+
+    public boolean matches(String endpointFilter, Long gymFilter) {
+        return (endpointFilter == null || endpointFilter.equals(endpoint))
+                && (gymFilter == null || gymFilter == gymId);
+    }
+}
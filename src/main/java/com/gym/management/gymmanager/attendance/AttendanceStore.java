@@ -0,0 +1,341 @@
+package com.gym.management.gymmanager.attendance;
+
+import com.gym.management.gymmanager.dto.RetentionCohort;
+import com.gym.management.gymmanager.dto.TrainerVisits;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Посещения в колоночном виде: чанки по 64K строк с отдельным примитивным массивом на
+ * каждое поле, типы залов и абонементов — кодами словаря. Время — минута по местному
+ * времени клуба с начала эпохи. Запросы делят чанки между потоками ForkJoinPool
+ * и сливают частичные итоги; чанки вне периода по min/max минуте пропускаются.
+ * Пишет один поток за раз, читатели видят строки чанка до опубликованного size.
+ */
+public class AttendanceStore {
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    public static final int MAX_RETENTION_MONTHS = Long.SIZE;
+    static final int CHUNK_ROWS = 1 << 16;
+
+    static final class Chunk {
+        final long[] personIds = new long[CHUNK_ROWS];
+        final int[] gymIds = new int[CHUNK_ROWS];
+        final int[] minutes = new int[CHUNK_ROWS];
+        final int[] trainerIds = new int[CHUNK_ROWS];
+        final short[] gymTypes = new short[CHUNK_ROWS];
+        final short[] membershipTypes = new short[CHUNK_ROWS];
+        int minMinute = Integer.MAX_VALUE;
+        int maxMinute = Integer.MIN_VALUE;
+        volatile int size;
+
+        boolean overlaps(int fromMinute, int toMinute) {
+            return minMinute < toMinute && maxMinute >= fromMinute;
+        }
+    }
+
+    private interface ChunkQuery<R> {
+        R compute(Chunk chunk, int rows);
+
+        R merge(R left, R right);
+    }
+
+    private static final class ChunkTask<R> extends RecursiveTask<R> {
+        private final ChunkQuery<R> query;
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(ChunkQuery<R> query, Chunk[] chunks, int from, int to) {
+            this.query = query;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                Chunk chunk = chunks[from];
+                return query.compute(chunk, chunk.size);
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask<R> left = new ChunkTask<>(query, chunks, from, middle);
+            left.fork();
+            R right = new ChunkTask<>(query, chunks, middle, to).compute();
+            return query.merge(left.join(), right);
+        }
+    }
+
+    // Счётчики width столбцов на каждый ключ
+    private static final class KeyedCounts {
+        final int width;
+        final LongKeyIndex keys = new LongKeyIndex(64);
+        long[] counts;
+
+        KeyedCounts(int width) {
+            this.width = width;
+            this.counts = new long[64 * width];
+        }
+
+        void add(long key, int column, long delta) {
+            int index = keys.add(key);
+            if ((index + 1) * width > counts.length) {
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            counts[index * width + column] += delta;
+        }
+
+        long get(int index, int column) {
+            return counts[index * width + column];
+        }
+
+        KeyedCounts merge(KeyedCounts other) {
+            for (int i = 0; i < other.keys.size(); i++) {
+                for (int column = 0; column < width; column++) {
+                    long count = other.get(i, column);
+                    if (count != 0) {
+                        add(other.keys.key(i), column, count);
+                    }
+                }
+            }
+            return this;
+        }
+    }
+
+    // Активность клиентов для когорт: месяцы с посещениями в окне и самое раннее посещение вообще
+    private static final class PersonActivity {
+        final LongKeyIndex persons = new LongKeyIndex(1024);
+        long[] months = new long[1024];
+        int[] firstMinute = new int[1024];
+        short[] firstType = new short[1024];
+
+        void add(long personId, long monthMask, int minute, short type) {
+            int known = persons.size();
+            int index = persons.add(personId);
+            if (index == known) {
+                if (index == months.length) {
+                    months = Arrays.copyOf(months, index * 2);
+                    firstMinute = Arrays.copyOf(firstMinute, index * 2);
+                    firstType = Arrays.copyOf(firstType, index * 2);
+                }
+                firstMinute[index] = Integer.MAX_VALUE;
+            }
+            months[index] |= monthMask;
+            if (minute < firstMinute[index]) {
+                firstMinute[index] = minute;
+                firstType[index] = type;
+            }
+        }
+
+        PersonActivity merge(PersonActivity other) {
+            for (int i = 0; i < other.persons.size(); i++) {
+                add(other.persons.key(i), other.months[i], other.firstMinute[i], other.firstType[i]);
+            }
+            return this;
+        }
+    }
+
+    private final StringDictionary gymTypes = new StringDictionary();
+    private final StringDictionary membershipTypes = new StringDictionary();
+    private final ForkJoinPool pool;
+    private volatile Chunk[] chunks = new Chunk[0];
+
+    public AttendanceStore(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // ID тренера и зала 0 — не задан
+    public synchronized void append(long personId, int gymId, int localMinute, int trainerId,
+                                    String gymType, String membershipType) {
+        Chunk[] current = chunks;
+        Chunk chunk = current.length > 0 ? current[current.length - 1] : null;
+        if (chunk == null || chunk.size == CHUNK_ROWS) {
+            chunk = new Chunk();
+            Chunk[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = chunk;
+            chunks = grown;
+        }
+        int row = chunk.size;
+        chunk.personIds[row] = personId;
+        chunk.gymIds[row] = gymId;
+        chunk.minutes[row] = localMinute;
+        chunk.trainerIds[row] = trainerId;
+        chunk.gymTypes[row] = gymTypes.encode(gymType);
+        chunk.membershipTypes[row] = membershipTypes.encode(membershipType);
+        chunk.minMinute = Math.min(chunk.minMinute, localMinute);
+        chunk.maxMinute = Math.max(chunk.maxMinute, localMinute);
+        chunk.size = row + 1;
+    }
+
+    public long rows() {
+        Chunk[] current = chunks;
+        return current.length == 0 ? 0 : (long) (current.length - 1) * CHUNK_ROWS + current[current.length - 1].size;
+    }
+
+    public int chunks() {
+        return chunks.length;
+    }
+
+    /**
+     * Посещения по часам суток (0..23) для каждого зала за [from, to]. gymType, если
+     * задан, оставляет только залы этого типа.
+     */
+    public Map<Long, long[]> hourlyByGym(LocalDate from, LocalDate to, String gymType) {
+        int fromMinute = startMinute(from);
+        int toMinute = startMinute(to.plusDays(1));
+        short typeCode = gymType != null ? gymTypes.codeOf(gymType) : -1;
+        if (gymType != null && typeCode < 0) {
+            return Map.of();
+        }
+        KeyedCounts counts = run(new ChunkQuery<>() {
+            @Override
+            public KeyedCounts compute(Chunk chunk, int rows) {
+                KeyedCounts partial = new KeyedCounts(24);
+                if (!chunk.overlaps(fromMinute, toMinute)) {
+                    return partial;
+                }
+                for (int row = 0; row < rows; row++) {
+                    int minute = chunk.minutes[row];
+                    if (minute < fromMinute || minute >= toMinute || chunk.gymIds[row] == 0
+                            || (gymType != null && chunk.gymTypes[row] != typeCode)) {
+                        continue;
+                    }
+                    partial.add(chunk.gymIds[row], Math.floorMod(minute, MINUTES_PER_DAY) / 60, 1);
+                }
+                return partial;
+            }
+
+            @Override
+            public KeyedCounts merge(KeyedCounts left, KeyedCounts right) {
+                return left.merge(right);
+            }
+        }, () -> new KeyedCounts(24));
+
+        Map<Long, long[]> result = new TreeMap<>();
+        for (int i = 0; i < counts.keys.size(); i++) {
+            result.put(counts.keys.key(i), Arrays.copyOfRange(counts.counts, i * 24, i * 24 + 24));
+        }
+        return result;
+    }
+
+    public List<TrainerVisits> topTrainers(LocalDate from, LocalDate to, int limit) {
+        int fromMinute = startMinute(from);
+        int toMinute = startMinute(to.plusDays(1));
+        KeyedCounts counts = run(new ChunkQuery<>() {
+            @Override
+            public KeyedCounts compute(Chunk chunk, int rows) {
+                KeyedCounts partial = new KeyedCounts(1);
+                if (!chunk.overlaps(fromMinute, toMinute)) {
+                    return partial;
+                }
+                for (int row = 0; row < rows; row++) {
+                    int minute = chunk.minutes[row];
+                    if (minute >= fromMinute && minute < toMinute && chunk.trainerIds[row] != 0) {
+                        partial.add(chunk.trainerIds[row], 0, 1);
+                    }
+                }
+                return partial;
+            }
+
+            @Override
+            public KeyedCounts merge(KeyedCounts left, KeyedCounts right) {
+                return left.merge(right);
+            }
+        }, () -> new KeyedCounts(1));
+
+        List<TrainerVisits> result = new ArrayList<>(counts.keys.size());
+        for (int i = 0; i < counts.keys.size(); i++) {
+            result.add(new TrainerVisits(counts.keys.key(i), counts.get(i, 0)));
+        }
+        result.sort(Comparator.comparingLong(TrainerVisits::visits).reversed()
+                .thenComparing(TrainerVisits::trainerId));
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Когорты удержания: клиенты по месяцу первого посещения (в пределах months месяцев
+     * от from) и типу абонемента на тот момент; для каждой — сколько клиентов приходили
+     * в каждый следующий месяц окна.
+     */
+    public List<RetentionCohort> retention(YearMonth from, int months) {
+        if (months < 1 || months > MAX_RETENTION_MONTHS) {
+            throw new IllegalArgumentException("Окно когорт — от 1 до " + MAX_RETENTION_MONTHS + " месяцев");
+        }
+        int[] monthStarts = new int[months + 1];
+        for (int i = 0; i <= months; i++) {
+            monthStarts[i] = startMinute(from.plusMonths(i).atDay(1));
+        }
+        int windowStart = monthStarts[0];
+        int windowEnd = monthStarts[months];
+        PersonActivity activity = run(new ChunkQuery<>() {
+            @Override
+            public PersonActivity compute(Chunk chunk, int rows) {
+                PersonActivity partial = new PersonActivity();
+                // Самое раннее посещение нужно по всей истории, поэтому чанки не пропускаются
+                for (int row = 0; row < rows; row++) {
+                    int minute = chunk.minutes[row];
+                    long mask = 0;
+                    if (minute >= windowStart && minute < windowEnd) {
+                        int month = Arrays.binarySearch(monthStarts, minute);
+                        mask = 1L << (month >= 0 ? month : -month - 2);
+                    }
+                    partial.add(chunk.personIds[row], mask, minute, chunk.membershipTypes[row]);
+                }
+                return partial;
+            }
+
+            @Override
+            public PersonActivity merge(PersonActivity left, PersonActivity right) {
+                return left.merge(right);
+            }
+        }, PersonActivity::new);
+
+        KeyedCounts cohorts = new KeyedCounts(months);
+        for (int i = 0; i < activity.persons.size(); i++) {
+            int first = activity.firstMinute[i];
+            if (first < windowStart || first >= windowEnd) {
+                continue;
+            }
+            int cohort = Long.numberOfTrailingZeros(activity.months[i]);
+            long key = ((long) activity.firstType[i] << 8) | cohort;
+            for (int offset = 0; cohort + offset < months; offset++) {
+                if ((activity.months[i] & (1L << (cohort + offset))) != 0) {
+                    cohorts.add(key, offset, 1);
+                }
+            }
+        }
+
+        List<RetentionCohort> result = new ArrayList<>(cohorts.keys.size());
+        for (int i = 0; i < cohorts.keys.size(); i++) {
+            long key = cohorts.keys.key(i);
+            int cohort = (int) (key & 0xFF);
+            long[] retained = Arrays.copyOfRange(cohorts.counts, i * months, i * months + months - cohort);
+            result.add(new RetentionCohort(membershipTypes.decode((short) (key >>> 8)), from.plusMonths(cohort),
+                    retained[0], retained));
+        }
+        result.sort(Comparator.comparing(RetentionCohort::cohort)
+                .thenComparing(c -> c.membershipType() != null ? c.membershipType() : ""));
+        return result;
+    }
+
+    public static int startMinute(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay() * MINUTES_PER_DAY);
+    }
+
+    private <R> R run(ChunkQuery<R> query, Supplier<R> empty) {
+        Chunk[] snapshot = chunks;
+        if (snapshot.length == 0) {
+            return empty.get();
+        }
+        return pool.invoke(new ChunkTask<>(query, snapshot, 0, snapshot.length));
+    }
+}
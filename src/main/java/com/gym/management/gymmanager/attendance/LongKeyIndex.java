@@ -0,0 +1,82 @@
+package com.gym.management.gymmanager.attendance;
+
+import java.util.Arrays;
+
+/**
+ * Плотная нумерация ключей long: каждому новому ключу — следующий индекс с нуля.
+ * Открытая адресация без упаковки в Long, чтобы агрегаты по клиентам, залам и тренерам
+ * можно было копить в обычных массивах по индексу.
+ */
+final class LongKeyIndex {
+    private long[] keys;
+    private int[] slots;
+    private long[] byIndex;
+    private int size;
+
+    LongKeyIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2) - 1) << 1;
+        keys = new long[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, -1);
+        byIndex = new long[Math.max(16, expectedSize)];
+    }
+
+    int indexOf(long key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; slots[slot] >= 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slots[slot];
+            }
+        }
+        return -1;
+    }
+
+    // Индекс ключа; новый ключ получает индекс size() - 1
+    int add(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        for (; slots[slot] >= 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slots[slot];
+            }
+        }
+        if (size == byIndex.length) {
+            byIndex = Arrays.copyOf(byIndex, size * 2);
+        }
+        byIndex[size] = key;
+        keys[slot] = key;
+        slots[slot] = size;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    long key(int index) {
+        return byIndex[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash() {
+        keys = new long[keys.length * 2];
+        slots = new int[keys.length];
+        Arrays.fill(slots, -1);
+        int mask = keys.length - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = mix(byIndex[index]) & mask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = byIndex[index];
+            slots[slot] = index;
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,51 @@
+package com.gym.management.gymmanager.attendance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Словарное кодирование строк (типы залов и абонементов): в колонке хранится short,
+ * строка — один раз здесь. Код 0 — значение не задано.
+ */
+public class StringDictionary {
+    public static final short NONE = 0;
+
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+    private final List<String> values = new ArrayList<>(List.of(""));
+
+    public short encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Short code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (values) {
+            return codes.computeIfAbsent(value, v -> {
+                if (values.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Слишком много различных значений в словаре");
+                }
+                values.add(v);
+                return (short) (values.size() - 1);
+            });
+        }
+    }
+
+    // Код, который ещё не встречался, — -1: запрос по такому значению заведомо пуст
+    public short codeOf(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Short code = codes.get(value);
+        return code != null ? code : -1;
+    }
+
+    public String decode(short code) {
+        synchronized (values) {
+            return code == NONE ? null : values.get(code);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.gym.management.gymmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ограниченный по размеру cache-aside кеш для справочных сущностей (залы, тренеры).
+ * Хранит записи по ID и снимок полного списка; любая запись через put/evict
+ * сбрасывает снимок, поэтому список никогда не переживает изменение.
+ */
+public class EntityCache<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityCache.class);
+
+    private final String name;
+    private final Cache<Long, T> byId;
+    private final AtomicLong version = new AtomicLong();
+    private volatile List<T> allSnapshot;
+
+    public EntityCache(String name, long maxSize, Duration ttl) {
+        this.name = name;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Cache<Long, T> getNativeCache() {
+        return byId;
+    }
+
+    public Optional<T> get(Long id, Function<Long, Optional<T>> loader) {
+        T cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long observedVersion = version.get();
+        Optional<T> loaded = loader.apply(id);
+        if (version.get() == observedVersion) {
+            loaded.ifPresent(entity -> byId.put(id, entity));
+        }
+        return loaded;
+    }
+
+    public Optional<T> peek(Long id) {
+        return Optional.ofNullable(byId.getIfPresent(id));
+    }
+
+    public List<T> getAll(Supplier<List<T>> loader) {
+        List<T> snapshot = allSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long observedVersion = version.get();
+        List<T> loaded = List.copyOf(loader.get());
+        // Если во время загрузки случилась запись, снимок уже устарел — не сохраняем его
+        if (version.get() == observedVersion) {
+            allSnapshot = loaded;
+        }
+        return loaded;
+    }
+
+    public void put(Long id, T entity) {
+        byId.put(id, entity);
+        invalidateSnapshot();
+    }
+
+    public void evict(Long id) {
+        byId.invalidate(id);
+        invalidateSnapshot();
+    }
+
+    public void clear() {
+        LOGGER.debug("Clearing {} cache", name);
+        byId.invalidateAll();
+        invalidateSnapshot();
+    }
+
+    public Map<String, Number> getStatsSnapshot() {
+        CacheStats stats = byId.stats();
+        Map<String, Number> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", byId.estimatedSize());
+        snapshot.put("hits", stats.hitCount());
+        snapshot.put("misses", stats.missCount());
+        snapshot.put("hitRate", stats.hitRate());
+        snapshot.put("evictions", stats.evictionCount());
+        return snapshot;
+    }
+
+    private void invalidateSnapshot() {
+        version.incrementAndGet();
+        allSnapshot = null;
+    }
+}
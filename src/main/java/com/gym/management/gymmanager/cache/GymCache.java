@@ -0,0 +1,14 @@
+package com.gym.management.gymmanager.cache;
+
+import com.gym.management.gymmanager.model.Gym;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class GymCache extends EntityCache<Gym> {
+    public GymCache(@Value("${gymmanager.cache.gym.max-size:1000}") long maxSize,
+                    @Value("${gymmanager.cache.gym.ttl:30m}") Duration ttl) {
+        super("gym", maxSize, ttl);
+    }
+}
@@ -0,0 +1,75 @@
+package com.gym.management.gymmanager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.gym.management.gymmanager.dto.PersonSummary;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Кеш страниц "клиенты по типу зала" с коротким TTL. Ключ — тип зала и курсор страницы.
+ * Смена зала у клиента или правка зала сбрасывает страницы затронутых типов сразу,
+ * остальные изменения (новые клиенты, удаления) доживают до истечения TTL.
+ */
+@Component
+public class GymTypeQueryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GymTypeQueryCache.class);
+
+    private record Key(String gymType, long after, int limit) {
+    }
+
+    private final Cache<Key, List<PersonSummary>> pages;
+    private final AtomicLong version = new AtomicLong();
+
+    public GymTypeQueryCache(@Value("${gymmanager.cache.gym-type.max-size:1000}") long maxSize,
+                             @Value("${gymmanager.cache.gym-type.ttl:30s}") Duration ttl) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public String getName() {
+        return "gym-type";
+    }
+
+    public Cache<?, ?> getNativeCache() {
+        return pages;
+    }
+
+    public List<PersonSummary> get(String gymType, long after, int limit, Supplier<List<PersonSummary>> loader) {
+        Key key = new Key(gymType, after, limit);
+        List<PersonSummary> cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long observedVersion = version.get();
+        List<PersonSummary> loaded = List.copyOf(loader.get());
+        // Сброс во время загрузки мог относиться к этой странице — такой результат не кешируем
+        if (version.get() == observedVersion) {
+            pages.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String gymType) {
+        if (gymType == null) {
+            return;
+        }
+        version.incrementAndGet();
+        pages.asMap().keySet().removeIf(key -> key.gymType().equals(gymType));
+        LOGGER.debug("Invalidated cached pages for gym type {}", gymType);
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        pages.invalidateAll();
+    }
+}
@@ -1,49 +1,81 @@
 package com.gym.management.gymmanager.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.gym.management.gymmanager.model.Person;
-import java.util.Collections;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Кеш клиентов по ID. Caffeine даёт чтение без блокировок, вытеснение W-TinyLFU,
+ * ограничение по размеру и TTL, а также счётчики попаданий, промахов и вытеснений.
+ */
 @Component
 public class PersonCache {
     private static final Logger LOGGER = LoggerFactory.getLogger(PersonCache.class);
 
-    private static final int MAX_CACHE_SIZE = 100;
+    private final Cache<Long, Person> personByIdCache;
 
-    private final Map<Long, Person> personByIdCache = Collections
-            .synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<Long, Person> eldest) {
-            return size() > MAX_CACHE_SIZE;
-        }
-    });
+    public PersonCache(@Value("${gymmanager.cache.person.max-size:10000}") long maxSize,
+                       @Value("${gymmanager.cache.person.ttl:10m}") Duration ttl) {
+        this.personByIdCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        LOGGER.info("Person ID cache initialized: maxSize={}, ttl={}", maxSize, ttl);
+    }
 
     public void putToIdCache(Long id, Person person) {
         personByIdCache.put(id, person);
-        LOGGER.info("Put person into ID cache: {}", person);
+        LOGGER.debug("Put person with ID {} into ID cache", id);
     }
 
     public Person getPersonByIdCache(Long id) {
-        LOGGER.info("Getting person from ID cache with ID: {}", id);
-        return personByIdCache.get(id);
+        return personByIdCache.getIfPresent(id);
     }
 
     public void removeFromIdCache(Long id) {
-        LOGGER.info("Removing person with ID {} from ID cache", id);
-        personByIdCache.remove(id);
+        LOGGER.debug("Removing person with ID {} from ID cache", id);
+        personByIdCache.invalidate(id);
     }
 
     public void clear() {
         LOGGER.info("Clearing ID cache");
-        personByIdCache.clear();
+        personByIdCache.invalidateAll();
+    }
+
+    public void cleanUp() {
+        personByIdCache.cleanUp();
     }
 
     public Map<Long, Person> getAll() {
-        LOGGER.info("Getting all people from ID cache.");
-        return new LinkedHashMap<>(personByIdCache);
+        return new LinkedHashMap<>(personByIdCache.asMap());
+    }
+
+    // Для привязки метрик Caffeine (см. MetricsConfig)
+    public Cache<Long, Person> getNativeCache() {
+        return personByIdCache;
+    }
+
+    public CacheStats getStats() {
+        return personByIdCache.stats();
+    }
+
+    public Map<String, Number> getStatsSnapshot() {
+        CacheStats stats = personByIdCache.stats();
+        Map<String, Number> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", personByIdCache.estimatedSize());
+        snapshot.put("hits", stats.hitCount());
+        snapshot.put("misses", stats.missCount());
+        snapshot.put("hitRate", stats.hitRate());
+        snapshot.put("evictions", stats.evictionCount());
+        return snapshot;
     }
 }
@@ -0,0 +1,14 @@
+package com.gym.management.gymmanager.cache;
+
+import com.gym.management.gymmanager.model.Trainer;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TrainerCache extends EntityCache<Trainer> {
+    public TrainerCache(@Value("${gymmanager.cache.trainer.max-size:1000}") long maxSize,
+                        @Value("${gymmanager.cache.trainer.ttl:30m}") Duration ttl) {
+        super("trainer", maxSize, ttl);
+    }
+}
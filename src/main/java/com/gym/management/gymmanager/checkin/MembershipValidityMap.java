@@ -0,0 +1,165 @@
+package com.gym.management.gymmanager.checkin;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Срок действия абонемента по ID клиента: открытая адресация по одному массиву long,
+ * где в чётной ячейке ключ, в следующей — дни начала и окончания (epoch day), упакованные
+ * в один long. Чтение идёт без блокировки (оптимистичный StampedLock) и ничего не
+ * выделяет; запись и рост таблицы — под эксклюзивной блокировкой.
+ */
+public class MembershipValidityMap {
+    private static final long EMPTY = 0L;
+    private static final float MAX_LOAD = 0.5f;
+    // Начало позже конца: для отсутствующего клиента проверка всегда ложна
+    private static final long MISSING = pack(Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    private final StampedLock lock = new StampedLock();
+    private long[] table;
+    private int size;
+
+    public MembershipValidityMap(int expectedSize) {
+        table = new long[2 * capacityFor(expectedSize)];
+    }
+
+    // Без даты начала или окончания срок с этой стороны не ограничен
+    public static long pack(int startDay, int endDay) {
+        return ((long) startDay << 32) | (endDay & 0xFFFF_FFFFL);
+    }
+
+    public boolean isValid(long personId, int epochDay) {
+        long packed = get(personId);
+        return (int) (packed >> 32) <= epochDay && epochDay <= (int) packed;
+    }
+
+    long get(long personId) {
+        long stamp = lock.tryOptimisticRead();
+        long packed = find(table, personId);
+        if (lock.validate(stamp)) {
+            return packed;
+        }
+        stamp = lock.readLock();
+        try {
+            return find(table, personId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Таблица может меняться прямо во время поиска, поэтому число проб ограничено её размером
+    private static long find(long[] table, long key) {
+        int slots = table.length >> 1;
+        int mask = slots - 1;
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes < slots; probes++) {
+            long current = table[slot << 1];
+            if (current == key) {
+                return table[(slot << 1) + 1];
+            }
+            if (current == EMPTY) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    public void put(long personId, int startDay, int endDay) {
+        checkKey(personId);
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > (table.length >> 1) * MAX_LOAD) {
+                resize(table.length);
+            }
+            if (insert(table, personId, pack(startDay, endDay))) {
+                size++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long personId) {
+        checkKey(personId);
+        long stamp = lock.writeLock();
+        try {
+            int mask = (table.length >> 1) - 1;
+            int slot = hash(personId) & mask;
+            while (table[slot << 1] != personId) {
+                if (table[slot << 1] == EMPTY) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            // Обратный сдвиг вместо надгробий: следующие элементы цепочки встают на освободившиеся места
+            int free = slot;
+            slot = (slot + 1) & mask;
+            while (table[slot << 1] != EMPTY) {
+                int home = hash(table[slot << 1]) & mask;
+                if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                    table[free << 1] = table[slot << 1];
+                    table[(free << 1) + 1] = table[(slot << 1) + 1];
+                    free = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[free << 1] = EMPTY;
+            table[(free << 1) + 1] = 0L;
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void resize(int length) {
+        long[] grown = new long[length * 2];
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != EMPTY) {
+                insert(grown, table[i], table[i + 1]);
+            }
+        }
+        table = grown;
+    }
+
+    private static boolean insert(long[] table, long key, long value) {
+        int mask = (table.length >> 1) - 1;
+        int slot = hash(key) & mask;
+        while (table[slot << 1] != EMPTY && table[slot << 1] != key) {
+            slot = (slot + 1) & mask;
+        }
+        boolean added = table[slot << 1] == EMPTY;
+        table[(slot << 1) + 1] = value;
+        table[slot << 1] = key;
+        return added;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.min(1L << 30, (long) Math.ceil(Math.max(expectedSize, 8) / MAX_LOAD));
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // Перемешивание из MurmurHash3: последовательные ID не собираются в одну цепочку
+    private static int hash(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static void checkKey(long personId) {
+        if (personId == EMPTY) {
+            throw new IllegalArgumentException("ID клиента 0 зарезервирован");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gym.management.gymmanager.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+    private final Environment environment;
+
+    public AsyncConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    // Любой собственный бин Executor выключает applicationTaskExecutor Spring Boot
+    // (@ConditionalOnMissingBean(Executor.class)), и потоковые ответы MVC (StreamingResponseBody)
+    // ушли бы на SimpleAsyncTaskExecutor — новый поток на каждый запрос без предела. Поэтому
+    // объявляем его сами, с ограниченными пулом и очередью; MVC его отдаёт WebConfig.
+    // При переполнении очереди потоковый запрос получает 429.
+    @Bean(name = "applicationTaskExecutor")
+    public ThreadPoolTaskExecutor applicationTaskExecutor(
+            @Value("${gymmanager.web.async-executor.pool-size:16}") int poolSize,
+            @Value("${gymmanager.web.async-executor.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // Отдельный ограниченный пул для импорта клиентов: при заполненной очереди
+    // задача отклоняется (TaskRejectedException -> 429), а не копится без предела.
+    // В режиме виртуальных потоков (spring.threads.virtual.enabled) воркеры виртуальные,
+    // но размер пула и очередь остаются: они ограничивают нагрузку на БД и диск, а не потоки.
+    @Bean
+    public ThreadPoolTaskExecutor importTaskExecutor(
+            @Value("${gymmanager.import.executor.pool-size:2}") int poolSize,
+            @Value("${gymmanager.import.executor.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("person-import-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // Пул для выгрузок логов: задачи тяжёлые по I/O, поэтому держим их число и очередь
+    // под контролем; переполнение так же отдаётся клиенту как 429
+    @Bean
+    public ThreadPoolTaskExecutor logTaskExecutor(
+            @Value("${gymmanager.logs.executor.pool-size:2}") int poolSize,
+            @Value("${gymmanager.logs.executor.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("log-export-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        // Выгрузки не жалко прервать при остановке: файлы всё равно удаляются при следующем старте
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // Пул для порций сетевого отчёта: каждая занимает соединение на время своих запросов,
+    // поэтому потоков не больше, чем соединений Hikari минус одно для остального API
+    @Bean
+    public ThreadPoolTaskExecutor reportTaskExecutor(
+            @Value("${gymmanager.reports.executor.pool-size:4}") int poolSize,
+            @Value("${gymmanager.reports.executor.queue-capacity:200}") int queueCapacity,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int threads = Math.max(1, Math.min(poolSize, connectionPoolSize - 1));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("gym-report-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    // Полные выгрузки клиентов: каждая держит соединение с курсором всё время работы,
+    // поэтому по умолчанию одна за раз, остальные ждут в короткой очереди
+    @Bean
+    public ThreadPoolTaskExecutor exportTaskExecutor(
+            @Value("${gymmanager.exports.executor.pool-size:1}") int poolSize,
+            @Value("${gymmanager.exports.executor.queue-capacity:5}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("person-export-");
+        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,38 @@
+package com.gym.management.gymmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.gym.management.gymmanager.cache.GymCache;
+import com.gym.management.gymmanager.cache.GymTypeQueryCache;
+import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.cache.TrainerCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// HTTP-запросы, репозитории Spring Data, пул Hikari и пулы задач инструментирует сам
+// actuator; здесь — только то, о чём он не знает: собственные кеши на Caffeine
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(PersonCache personCache, GymCache gymCache, TrainerCache trainerCache,
+                                    GymTypeQueryCache gymTypeQueryCache) {
+        return registry -> {
+            bindCache(registry, "person", personCache.getNativeCache());
+            bindCache(registry, gymCache.getName(), gymCache.getNativeCache());
+            bindCache(registry, trainerCache.getName(), trainerCache.getNativeCache());
+            bindCache(registry, gymTypeQueryCache.getName(), gymTypeQueryCache.getNativeCache());
+        };
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        Gauge.builder("gymmanager.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Доля попаданий с момента старта")
+                .register(registry);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gym.management.gymmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Режим виртуальных потоков включается spring.threads.virtual.enabled=true на Java 21+:
+// Tomcat, @Scheduled и пулы из AsyncConfig (включая applicationTaskExecutor для потоковых
+// ответов) переходят на виртуальные потоки сами. Здесь — то, что этому режиму нужно
+// дополнительно: лимит по пулу соединений и диагностика пиннинга.
+@Configuration
+public class VirtualThreadConfig {
+
+    // Одновременно в API пускаем не больше maximum-pool-size * requests-per-connection
+    // запросов: больше соединений всё равно не будет, остальные только ждали бы Hikari
+    @Bean
+    @ConditionalOnProperty(name = "gymmanager.concurrency.limit-enabled", havingValue = "true")
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${gymmanager.concurrency.requests-per-connection:4}") int requestsPerConnection,
+            @Value("${gymmanager.concurrency.acquire-timeout:2s}") Duration acquireTimeout,
+            MeterRegistry meterRegistry) {
+        int limit = poolSize * requestsPerConnection;
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limit, acquireTimeout, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${gymmanager.threads.pinning-threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new PinnedThreadMonitor(threshold, meterRegistry);
+    }
+}
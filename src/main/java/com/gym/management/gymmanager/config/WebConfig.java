@@ -1,7 +1,10 @@
 package com.gym.management.gymmanager.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -20,4 +23,16 @@ public class WebConfig {
             }
         };
     }
+
+    // Потоковые ответы (StreamingResponseBody) выполняются в ограниченном пуле из AsyncConfig
+    @Bean
+    public WebMvcConfigurer asyncSupportConfigurer(
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(applicationTaskExecutor);
+            }
+        };
+    }
 }
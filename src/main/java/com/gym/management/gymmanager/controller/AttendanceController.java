@@ -0,0 +1,56 @@
+package com.gym.management.gymmanager.controller;
+
+import com.gym.management.gymmanager.dto.RetentionCohort;
+import com.gym.management.gymmanager.dto.TrainerVisits;
+import com.gym.management.gymmanager.service.AttendanceService;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Отчёты считаются по хранилищу посещений в памяти, без запросов к БД
+@RestController
+@RequestMapping("/api/attendance")
+public class AttendanceController {
+    private final AttendanceService attendanceService;
+
+    public AttendanceController(AttendanceService attendanceService) {
+        this.attendanceService = attendanceService;
+    }
+
+    // Посещения каждого зала по часам суток (24 значения) за [from, to]; по умолчанию — последние 30 дней
+    @GetMapping("/gyms/hourly")
+    public ResponseEntity<Map<Long, long[]>> getHourlyByGym(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String gymType) {
+        return ResponseEntity.ok(attendanceService.getHourlyByGym(from, to, gymType));
+    }
+
+    @GetMapping("/trainers/top")
+    public ResponseEntity<List<TrainerVisits>> getTopTrainers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(attendanceService.getTopTrainers(from, to, limit));
+    }
+
+    // Когорты по месяцу первого посещения и типу абонемента; from — месяц в формате 2024-01
+    @GetMapping("/retention")
+    public ResponseEntity<List<RetentionCohort>> getRetention(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) Integer months) {
+        return ResponseEntity.ok(attendanceService.getRetention(from, months));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(attendanceService.getStatus());
+    }
+}
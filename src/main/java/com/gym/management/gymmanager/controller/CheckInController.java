@@ -0,0 +1,80 @@
+package com.gym.management.gymmanager.controller;
+
+import com.gym.management.gymmanager.dto.VisitEvent;
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.service.CheckInService;
+import com.gym.management.gymmanager.service.VisitIngestService;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/checkin")
+public class CheckInController {
+    private final CheckInService checkInService;
+    private final VisitIngestService visitIngestService;
+
+    public CheckInController(CheckInService checkInService, VisitIngestService visitIngestService) {
+        this.checkInService = checkInService;
+        this.visitIngestService = visitIngestService;
+    }
+
+    // Турникет: 200 — проход разрешён, 403 — действующего абонемента нет
+    @GetMapping("/{personId}")
+    public ResponseEntity<Boolean> checkIn(@PathVariable long personId) {
+        boolean valid = checkInService.hasValidMembership(personId);
+        return valid ? ResponseEntity.ok(Boolean.TRUE)
+                : ResponseEntity.status(HttpStatus.FORBIDDEN).body(Boolean.FALSE);
+    }
+
+    // Отметка о проходе: 202 — принята и попадёт в БД через журнал, 503 — буфер приёма переполнен
+    @PostMapping("/{personId}")
+    public ResponseEntity<Void> recordVisit(@PathVariable long personId,
+                                            @RequestParam(required = false) Long gymId) {
+        boolean accepted = visitIngestService.record(personId, gymId, Instant.now());
+        return accepted ? ResponseEntity.accepted().build()
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build();
+    }
+
+    // Отметки, накопленные турникетом без связи; принимаются, пока есть место в буфере
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Integer>> recordVisits(@RequestBody List<VisitEvent> events) {
+        if (events == null || events.isEmpty()) {
+            throw new ValidationException("Список отметок пустой");
+        }
+        Instant now = Instant.now();
+        // Проверка до приёма: иначе часть пачки оказалась бы в журнале, а ответ — ошибкой
+        for (VisitEvent event : events) {
+            if (event.personId() == null) {
+                throw new ValidationException("В списке отметок не указан ID клиента");
+            }
+            visitIngestService.validate(event.personId(), event.gymId(), visitedAt(event, now));
+        }
+        int accepted = 0;
+        for (VisitEvent event : events) {
+            if (!visitIngestService.record(event.personId(), event.gymId(), visitedAt(event, now))) {
+                break;
+            }
+            accepted++;
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        result.put("accepted", accepted);
+        result.put("rejected", events.size() - accepted);
+        HttpStatus status = accepted == events.size() ? HttpStatus.ACCEPTED : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    private static Instant visitedAt(VisitEvent event, Instant now) {
+        return event.visitedAt() != null ? event.visitedAt() : now;
+    }
+}
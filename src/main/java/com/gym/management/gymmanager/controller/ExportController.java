@@ -0,0 +1,99 @@
+package com.gym.management.gymmanager.controller;
+
+import com.gym.management.gymmanager.export.ExportFormat;
+import com.gym.management.gymmanager.export.ExportTask;
+import com.gym.management.gymmanager.service.PersonExportService;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+    private final PersonExportService personExportService;
+
+    public ExportController(PersonExportService personExportService) {
+        this.personExportService = personExportService;
+    }
+
+    // format=csv (по умолчанию) или columnar; в ответе — ID задачи
+    @PostMapping("/persons")
+    public ResponseEntity<String> startPersonExport(@RequestParam(required = false) String format) {
+        return ResponseEntity.accepted().body(personExportService.startExport(ExportFormat.resolve(format)));
+    }
+
+    @GetMapping("/{taskId}")
+    public ResponseEntity<Map<String, Object>> getTask(@PathVariable String taskId) {
+        ExportTask task = personExportService.getTask(taskId);
+        if (task == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", task.getStatus());
+        body.put("format", task.getFormat());
+        body.put("createdAt", task.getCreatedAt());
+        body.put("runMillis", task.getRunTime().toMillis());
+        body.put("rows", task.getRows());
+        body.put("bytes", task.getBytes());
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/{taskId}")
+    public ResponseEntity<String> cancelTask(@PathVariable String taskId) {
+        if (personExportService.getTask(taskId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!personExportService.cancelTask(taskId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Задача уже завершена.");
+        }
+        return ResponseEntity.ok("Задача отменена.");
+    }
+
+    @GetMapping("/{taskId}/download")
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String taskId) {
+        ExportTask task = personExportService.getTask(taskId);
+        if (task == null) {
+            return message(HttpStatus.NOT_FOUND, "Задача с таким ID не найдена.");
+        }
+        switch (task.getStatus()) {
+            case PENDING:
+            case IN_PROGRESS:
+                return message(HttpStatus.NOT_FOUND, "Файл ещё не готов. Попробуйте позже.");
+            case FAILED:
+                return message(HttpStatus.INTERNAL_SERVER_ERROR, "Ошибка при создании файла.");
+            case CANCELLED:
+                return message(HttpStatus.GONE, "Задача была отменена.");
+            default:
+                break;
+        }
+        if (task.getFilePath() == null || !Files.exists(Paths.get(task.getFilePath()))) {
+            return message(HttpStatus.NOT_FOUND, "Файл не найден.");
+        }
+        StreamingResponseBody body = out -> personExportService.transferTo(task, Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(task.getFormat().contentType()))
+                .contentLength(task.getBytes())
+                .header("Content-Disposition", "attachment; filename=\"persons." + task.getFormat().extension() + "\"")
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> message(HttpStatus status, String text) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.parseMediaType("text/plain;charset=UTF-8"))
+                .body(out -> out.write(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
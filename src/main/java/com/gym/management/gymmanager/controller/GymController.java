@@ -11,7 +11,11 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/gyms")
 public class GymController {
 
-    private GymService gymService;
+    private final GymService gymService;
+
+    public GymController(GymService gymService) {
+        this.gymService = gymService;
+    }
 
     // 1. Добавить новый зал
     @PostMapping
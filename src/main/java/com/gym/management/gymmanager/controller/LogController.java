@@ -1,16 +1,25 @@
 package com.gym.management.gymmanager.controller;
 
 import com.gym.management.gymmanager.logging.AsyncLogTask;
+import com.gym.management.gymmanager.logging.LogQuery;
 import com.gym.management.gymmanager.service.LogService;
 import java.io.File;
+import java.nio.channels.Channels;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/logs")
@@ -21,12 +30,40 @@ public class LogController {
         this.logService = logService;
     }
 
+    // Либо date=yyyy-MM-dd (весь день), либо from/to в формате yyyy-MM-ddTHH:mm[:ss]
     @PostMapping("/generate")
-    public ResponseEntity<String> generateLogAsync(@RequestParam String date) {
-        String taskId = logService.startAsyncLogCreation(date);
+    public ResponseEntity<String> generateLogAsync(@RequestParam(required = false) String date,
+                                                   @RequestParam(required = false) String from,
+                                                   @RequestParam(required = false) String to,
+                                                   @RequestParam(required = false) String level) {
+        String taskId = logService.startAsyncLogCreation(LogQuery.of(date, from, to, level));
         return ResponseEntity.ok(taskId);
     }
 
+    // Синхронная выгрузка: записи пишутся в ответ по мере чтения, без временных файлов
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamLogs(@RequestParam(required = false) String date,
+                                                            @RequestParam(required = false) String from,
+                                                            @RequestParam(required = false) String to,
+                                                            @RequestParam(required = false) String level,
+                                                            @RequestParam(defaultValue = "false") boolean gzip) {
+        LogQuery query = LogQuery.of(date, from, to, level);
+        String fileName = "logs-" + query.from().toLocalDate() + (gzip ? ".log.gz" : ".log");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                logService.writeLogs(query, Channels.newChannel(gzipOut));
+                gzipOut.finish();
+            } else {
+                logService.writeLogs(query, Channels.newChannel(out));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.TEXT_PLAIN)
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @GetMapping("/status/{taskId}")
     public ResponseEntity<String> getStatus(@PathVariable String taskId) {
         AsyncLogTask task = logService.getTaskStatus(taskId);
@@ -36,6 +73,40 @@ public class LogController {
         return ResponseEntity.ok(task.getStatus().name());
     }
 
+    // Подробности задачи: статус, время в очереди и выполнения, размер выгрузки
+    @GetMapping("/task/{taskId}")
+    public ResponseEntity<Map<String, Object>> getTask(@PathVariable String taskId) {
+        AsyncLogTask task = logService.getTaskStatus(taskId);
+        if (task == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", task.getStatus());
+        body.put("from", task.getQuery().from());
+        body.put("to", task.getQuery().to());
+        body.put("createdAt", task.getCreatedAt());
+        body.put("queueMillis", task.getQueueTime().toMillis());
+        body.put("runMillis", task.getRunTime().toMillis());
+        body.put("bytes", task.getBytes());
+        return ResponseEntity.ok(body);
+    }
+
+    @DeleteMapping("/task/{taskId}")
+    public ResponseEntity<String> cancelTask(@PathVariable String taskId) {
+        if (logService.getTaskStatus(taskId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!logService.cancelTask(taskId)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Задача уже завершена.");
+        }
+        return ResponseEntity.ok("Задача отменена.");
+    }
+
+    @GetMapping("/executor")
+    public ResponseEntity<Map<String, Object>> getExecutorStats() {
+        return ResponseEntity.ok(logService.getExecutorStats());
+    }
+
     @GetMapping("/download/{taskId}")
     public ResponseEntity<Object> downloadFile(@PathVariable String taskId) {
         AsyncLogTask task = logService.getTaskStatus(taskId);
@@ -45,10 +116,13 @@ public class LogController {
         }
 
         switch (task.getStatus()) {
+            case PENDING:
             case IN_PROGRESS:
                 return ResponseEntity.status(404).body("Файл ещё не готов. Попробуйте позже.");
             case FAILED:
                 return ResponseEntity.status(500).body("Ошибка при создании файла.");
+            case CANCELLED:
+                return ResponseEntity.status(410).body("Задача была отменена.");
             case COMPLETED:
                 File file = logService.getLogFileByTaskId(taskId);
                 if (file == null || !file.exists()) {
@@ -1,10 +1,16 @@
 package com.gym.management.gymmanager.controller;
 
+import com.gym.management.gymmanager.exception.ResourceNotFoundException;
+import com.gym.management.gymmanager.expiry.ExpiringMembership;
 import com.gym.management.gymmanager.model.Membership;
 import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.service.MembershipExpiryService;
 import com.gym.management.gymmanager.service.MembershipService;
 import com.gym.management.gymmanager.service.PersonService;
+import java.time.LocalDate;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +20,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -21,38 +28,55 @@ import org.springframework.web.bind.annotation.RestController;
 public class MembershipController {
     private final MembershipService membershipService;
     private final PersonService personService;
+    private final MembershipExpiryService expiryService;
 
     @Autowired
-    public MembershipController(MembershipService membershipService, PersonService personService) {
+    public MembershipController(MembershipService membershipService, PersonService personService,
+                                MembershipExpiryService expiryService) {
         this.membershipService = membershipService;
         this.personService = personService;
+        this.expiryService = expiryService;
     }
 
     @PostMapping("/person/{personId}")
     @Transactional
     public ResponseEntity<Membership> assignMembershipToPerson(@PathVariable Long personId,
                                                       @RequestBody Membership membership) {
+        // Отсутствующий клиент: getPersonById бросает ResourceNotFoundException -> 404
         Person person = personService.getPersonById(personId);
-        if (person == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body("Person with ID " + personId + " not found.");
-        }
-
         membership.setPerson(person);
         Membership savedMembership = membershipService.saveMembership(membership);
 
         return ResponseEntity.status(HttpStatus.CREATED).body(savedMembership);
     }
 
+    // Абонементы, истекающие в [from, to]; по умолчанию — ближайшая неделя
+    @GetMapping("/expiring")
+    public ResponseEntity<List<ExpiringMembership>> getExpiring(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(expiryService.getExpiring(from, to, limit));
+    }
+
+    @GetMapping("/expiring/count")
+    public ResponseEntity<Integer> countExpiring(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(expiryService.countExpiring(from, to));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Membership> getMembershipById(@PathVariable Long id) {
         Membership membership = membershipService.getMembershipById(id);
-        return membership != null ? ResponseEntity.ok(membership)
-                : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Membership not found.");
+        if (membership == null) {
+            throw new ResourceNotFoundException("Membership not found.");
+        }
+        return ResponseEntity.ok(membership);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Membership> deleteMembership(@PathVariable Long id) {
+    public ResponseEntity<String> deleteMembership(@PathVariable Long id) {
         boolean deleted = membershipService.deleteMembership(id);
         return deleted ? ResponseEntity.ok("Person delete")
                 : ResponseEntity.status(HttpStatus.NOT_FOUND).body("Person not found");
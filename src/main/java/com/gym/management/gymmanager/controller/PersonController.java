@@ -1,33 +1,58 @@
 package com.gym.management.gymmanager.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.dto.PersonSummary;
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.importing.PersonImportTask;
 import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.service.PersonCopyLoader;
+import com.gym.management.gymmanager.service.PersonImportService;
 import com.gym.management.gymmanager.service.PersonService;
 import com.gym.management.gymmanager.service.VisitCounterService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
 @RequestMapping("/api/persons")
 @Tag(name = "Персоны", description = "Управление клиентами спортзала")
 public class PersonController {
+    private static final String PERSON_VIEW_ENDPOINT = "persons.get";
 
     private final PersonService personService;
     private final PersonCache personCache;
     private final VisitCounterService visitCounterService;
+    private final ObjectMapper objectMapper;
+    private final PersonCopyLoader personCopyLoader;
+    private final PersonImportService personImportService;
 
     public PersonController(PersonService personService,
                             PersonCache personCache,
-                            VisitCounterService visitCounterService) {
+                            VisitCounterService visitCounterService,
+                            ObjectMapper objectMapper,
+                            PersonCopyLoader personCopyLoader,
+                            PersonImportService personImportService) {
         this.personService = personService;
         this.personCache = personCache;
         this.visitCounterService = visitCounterService;
+        this.objectMapper = objectMapper;
+        this.personCopyLoader = personCopyLoader;
+        this.personImportService = personImportService;
     }
 
 
@@ -43,18 +68,84 @@ public class PersonController {
         return ResponseEntity.ok(savedPeople);
     }
 
+    @PostMapping(value = "/bulk/copy", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Массовая загрузка клиентов из CSV через COPY (name,phone_number,trainer_id,gym_id)")
+    public ResponseEntity<Map<String, Long>> copyPeopleBulk(@RequestParam("file") MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new ValidationException("Файл импорта пустой");
+        }
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.ok(personCopyLoader.load(csv));
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать файл импорта", e);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Запустить фоновый импорт клиентов из CSV или NDJSON")
+    public ResponseEntity<String> startImport(@RequestParam("file") MultipartFile file,
+                                              @RequestParam(required = false) String format) {
+        return ResponseEntity.accepted().body(personImportService.startImport(file, format));
+    }
+
+    @GetMapping("/import/{taskId}")
+    @Operation(summary = "Прогресс и ошибки фонового импорта")
+    public ResponseEntity<PersonImportTask> getImportStatus(@PathVariable String taskId) {
+        PersonImportTask task = personImportService.getTask(taskId);
+        return task != null ? ResponseEntity.ok(task) : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Получить клиента по ID")
     public ResponseEntity<Person> getPersonById(@PathVariable Long id) {
-        visitCounterService.increment();
-        return ResponseEntity.ok(personService.getPersonById(id));
+        Person person = personService.getPersonById(id);
+        visitCounterService.record(PERSON_VIEW_ENDPOINT, person.getGym() != null ? person.getGym().getId() : null);
+        return ResponseEntity.ok(person);
     }
 
 
     @GetMapping
-    @Operation(summary = "Получить всех клиентов")
-    public ResponseEntity<List<Person>> getAllPeople() {
-        return ResponseEntity.ok(personService.getAllPeople());
+    @Operation(summary = "Получить всех клиентов или страницу по курсору (?after=&limit=)")
+    public ResponseEntity<List<Person>> getAllPeople(@RequestParam(required = false) Long after,
+                                                     @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(personService.getAllPeople());
+        }
+
+        List<Person> page = personService.getPeoplePage(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty()) {
+            response.header("X-Next-After", String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping("/summary")
+    @Operation(summary = "Получить плоский список клиентов (ID тренера и зала вместо вложенных объектов)")
+    public ResponseEntity<List<PersonSummary>> getPeopleSummaries() {
+        return ResponseEntity.ok(personService.getPersonSummaries());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузить всех клиентов потоком NDJSON")
+    public ResponseEntity<StreamingResponseBody> streamAllPeople() {
+        ObjectWriter writer = objectMapper.writerFor(Person.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                personService.streamAllPeople(person -> {
+                    try {
+                        writer.writeValue(generator, person);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -88,10 +179,30 @@ public class PersonController {
         return ResponseEntity.ok(personService.getPersonsByGymType(gymType));
     }
 
-    @GetMapping("/by-gym-type-native")
-    @Operation(summary = "Получить клиентов по типу спортзала (native SQL)")
-    public ResponseEntity<List<Person>> getPeopleByGymTypeNative(@RequestParam String gymType) {
-        return ResponseEntity.ok(personService.getPersonsByGymTypeNative(gymType));
+    @GetMapping("/by-gym-type/summary")
+    @Operation(summary = "Получить плоский список клиентов по типу спортзала")
+    public ResponseEntity<List<PersonSummary>> getPeopleSummariesByGymType(@RequestParam String gymType) {
+        return ResponseEntity.ok(personService.getPersonSummariesByGymType(gymType));
+    }
+
+    @GetMapping("/by-gym-type/page")
+    @Operation(summary = "Страница плоского списка клиентов по типу спортзала (?gymType=&after=&limit=)")
+    public ResponseEntity<List<PersonSummary>> getPeopleSummariesByGymTypePage(
+            @RequestParam String gymType,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        List<PersonSummary> page = personService.getPersonSummariesByGymTypePage(gymType, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty()) {
+            response.header("X-Next-After", String.valueOf(page.get(page.size() - 1).id()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping("/by-gym-type/ordered")
+    @Operation(summary = "Получить клиентов по типу спортзала в порядке ID (JPQL)")
+    public ResponseEntity<List<Person>> getPeopleByGymTypeOrdered(@RequestParam String gymType) {
+        return ResponseEntity.ok(personService.getPersonsByGymTypeOrderById(gymType));
     }
 
     @GetMapping("/cache")
@@ -100,6 +211,12 @@ public class PersonController {
         return ResponseEntity.ok(personCache.getAll());
     }
 
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Статистика кеша клиентов")
+    public ResponseEntity<Map<String, Number>> getPersonCacheStats() {
+        return ResponseEntity.ok(personCache.getStatsSnapshot());
+    }
+
     @DeleteMapping("/cache/clear")
     @Operation(summary = "Очистить кеш клиентов")
     public ResponseEntity<String> clearCache() {
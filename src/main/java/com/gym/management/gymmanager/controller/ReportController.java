@@ -0,0 +1,48 @@
+package com.gym.management.gymmanager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.management.gymmanager.report.GymReport;
+import com.gym.management.gymmanager.report.GymReportWriter;
+import com.gym.management.gymmanager.report.ReportFormat;
+import com.gym.management.gymmanager.service.GymReportService;
+import java.time.LocalDate;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+    private final GymReportService gymReportService;
+    private final ObjectMapper objectMapper;
+
+    public ReportController(GymReportService gymReportService, ObjectMapper objectMapper) {
+        this.gymReportService = gymReportService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Отчёт по всем залам за [from, to] (по умолчанию — текущий месяц) в CSV или JSON.
+    // Расчёт стартует до ответа, строки уходят клиенту по мере готовности порций
+    @GetMapping("/gyms")
+    public ResponseEntity<StreamingResponseBody> getGymReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String format) {
+        ReportFormat reportFormat = ReportFormat.resolve(format);
+        GymReport report = gymReportService.startGymReport(from, to);
+        // При ошибке документ не закрываем: оборванный JSON/CSV не спутать с полным отчётом
+        StreamingResponseBody body = out -> {
+            GymReportWriter writer = GymReportWriter.open(reportFormat, out, objectMapper);
+            report.writeTo(writer);
+            writer.close();
+        };
+        return ResponseEntity.ok()
+                .contentType(reportFormat.mediaType())
+                .header("Content-Disposition", "attachment; filename=\"gyms-report." + reportFormat.extension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,53 @@
+package com.gym.management.gymmanager.controller;
+
+import com.gym.management.gymmanager.service.StatsService;
+import java.util.Map;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Все ответы берутся из счётчиков в памяти, без обращения к БД
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSnapshot() {
+        return ResponseEntity.ok(statsService.getSnapshot());
+    }
+
+    @GetMapping("/gyms/{gymId}")
+    public ResponseEntity<Long> getPersonsInGym(@PathVariable Long gymId) {
+        return ResponseEntity.ok(statsService.getPersonsInGym(gymId));
+    }
+
+    @GetMapping("/gym-types/{type}")
+    public ResponseEntity<Long> getPersonsInGymType(@PathVariable String type) {
+        return ResponseEntity.ok(statsService.getPersonsInGymType(type));
+    }
+
+    @GetMapping("/trainers/{trainerId}")
+    public ResponseEntity<Long> getPersonsOfTrainer(@PathVariable Long trainerId) {
+        return ResponseEntity.ok(statsService.getPersonsOfTrainer(trainerId));
+    }
+
+    @GetMapping("/membership-types/{type}")
+    public ResponseEntity<Long> getMembershipsOfType(@PathVariable String type) {
+        return ResponseEntity.ok(statsService.getMembershipsOfType(type));
+    }
+
+    // Внеочередная сверка с БД, например после ручных правок в таблицах
+    @PostMapping("/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcile() {
+        statsService.reconcile();
+        return ResponseEntity.ok(statsService.getSnapshot());
+    }
+}
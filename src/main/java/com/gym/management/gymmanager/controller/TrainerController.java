@@ -1,5 +1,7 @@
 package com.gym.management.gymmanager.controller;
 
+import com.gym.management.gymmanager.dto.PersonSummary;
+import com.gym.management.gymmanager.dto.TrainerSummary;
 import com.gym.management.gymmanager.model.Trainer;
 import com.gym.management.gymmanager.service.TrainerService;
 import java.util.List;
@@ -12,12 +14,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/trainers")
 public class TrainerController {
-    private TrainerService trainerService;
+    private final TrainerService trainerService;
+
+    public TrainerController(TrainerService trainerService) {
+        this.trainerService = trainerService;
+    }
 
     // 1. Создание нового тренера
     @PostMapping
@@ -26,11 +33,30 @@ public class TrainerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedTrainer);
     }
 
-    // 2. Получение всех тренеров
+    // 2. Получение всех тренеров: плоский список с числом клиентов, без самих клиентов
+    // (их отдаёт постранично /{id}/persons)
     @GetMapping
-    public ResponseEntity<List<Trainer>> getAllTrainers() {
-        List<Trainer> trainers = trainerService.getAllTrainers();
-        return ResponseEntity.ok(trainers);
+    public ResponseEntity<List<TrainerSummary>> getAllTrainers() {
+        return ResponseEntity.ok(trainerService.getTrainerSummaries());
+    }
+
+    // 2a. То же под старым адресом
+    @GetMapping("/summary")
+    public ResponseEntity<List<TrainerSummary>> getTrainerSummaries() {
+        return ResponseEntity.ok(trainerService.getTrainerSummaries());
+    }
+
+    // 2b. Клиенты тренера страницами: ?after=<ID последнего клиента>&limit=
+    @GetMapping("/{id}/persons")
+    public ResponseEntity<List<PersonSummary>> getTrainerRoster(@PathVariable Long id,
+                                                                @RequestParam(required = false) Long after,
+                                                                @RequestParam(required = false) Integer limit) {
+        List<PersonSummary> page = trainerService.getTrainerRoster(id, after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty()) {
+            response.header("X-Next-After", String.valueOf(page.get(page.size() - 1).id()));
+        }
+        return response.body(page);
     }
 
     // 3. Получение тренера по ID
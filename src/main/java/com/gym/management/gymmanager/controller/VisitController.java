@@ -1,9 +1,13 @@
 package com.gym.management.gymmanager.controller;
 
+import com.gym.management.gymmanager.analytics.Granularity;
 import com.gym.management.gymmanager.service.VisitCounterService;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -16,12 +20,48 @@ public class VisitController {
     }
 
     @GetMapping("/track")
-    public String trackVisit() {
-        visitCounterService.increment();
+    public String trackVisit(@RequestParam(required = false) Long gymId) {
+        visitCounterService.record(VisitCounterService.TRACK_ENDPOINT, gymId);
         return "Visit tracked";
     }
 
+    // Без фильтров — общий итог по всем эндпоинтам и залам
     @GetMapping("/count")
-    public ResponseEntity<Integer> getVisitCount() {
-        return ResponseEntity.ok(visitCounterService.getCount()); }
+    public ResponseEntity<Long> getVisitCount(@RequestParam(required = false) String endpoint,
+                                              @RequestParam(required = false) Long gymId) {
+        return ResponseEntity.ok(visitCounterService.getCount(endpoint, gymId));
     }
+
+    // Счёт по последним window минутам или часам, от старых к новым; последний — текущий интервал
+    @GetMapping("/series")
+    public ResponseEntity<long[]> getSeries(@RequestParam(required = false) String endpoint,
+                                            @RequestParam(required = false) Long gymId,
+                                            @RequestParam(required = false) String granularity,
+                                            @RequestParam(defaultValue = "60") int window) {
+        return ResponseEntity.ok(visitCounterService.getSeries(endpoint, gymId, Granularity.parse(granularity), window));
+    }
+
+    @GetMapping("/rate")
+    public ResponseEntity<Map<String, Object>> getRate(@RequestParam(required = false) String endpoint,
+                                                       @RequestParam(required = false) Long gymId,
+                                                       @RequestParam(required = false) String granularity,
+                                                       @RequestParam(defaultValue = "5") int window) {
+        Granularity unit = Granularity.parse(granularity);
+        double perInterval = visitCounterService.getRate(endpoint, gymId, unit, window);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("granularity", unit);
+        body.put("window", window);
+        body.put("perInterval", perInterval);
+        body.put("perSecond", perInterval / unit.getSeconds());
+        return ResponseEntity.ok(body);
+    }
+
+    // Перцентили числа посещений за минуту (или час) по завершённым интервалам окна
+    @GetMapping("/percentiles")
+    public ResponseEntity<Map<String, Long>> getPercentiles(@RequestParam(required = false) String endpoint,
+                                                            @RequestParam(required = false) Long gymId,
+                                                            @RequestParam(required = false) String granularity,
+                                                            @RequestParam(defaultValue = "60") int window) {
+        return ResponseEntity.ok(visitCounterService.getPercentiles(endpoint, gymId, Granularity.parse(granularity), window));
+    }
+}
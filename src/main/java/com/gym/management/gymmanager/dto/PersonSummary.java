@@ -0,0 +1,12 @@
+package com.gym.management.gymmanager.dto;
+
+// Плоское read-only представление клиента для списков: без вложенных сущностей
+public record PersonSummary(
+        Long id,
+        String name,
+        String phoneNumber,
+        Long trainerId,
+        String trainerName,
+        Long gymId,
+        String gymType) {
+}
@@ -0,0 +1,7 @@
+package com.gym.management.gymmanager.dto;
+
+import java.time.YearMonth;
+
+// Клиенты с первым посещением в cohort; retained[k] — сколько из них приходили через k месяцев
+public record RetentionCohort(String membershipType, YearMonth cohort, long persons, long[] retained) {
+}
@@ -0,0 +1,10 @@
+package com.gym.management.gymmanager.dto;
+
+// Плоское read-only представление тренера для списков: вместо коллекции клиентов — их число
+public record TrainerSummary(
+        Long id,
+        String name,
+        String trainingType,
+        String gender,
+        long clientCount) {
+}
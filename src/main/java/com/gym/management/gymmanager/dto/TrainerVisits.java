@@ -0,0 +1,5 @@
+package com.gym.management.gymmanager.dto;
+
+// Посещения клиентов тренера за период
+public record TrainerVisits(Long trainerId, long visits) {
+}
@@ -0,0 +1,7 @@
+package com.gym.management.gymmanager.dto;
+
+import java.time.Instant;
+
+// Отметка турникета; без visitedAt берётся время приёма
+public record VisitEvent(Long personId, Long gymId, Instant visitedAt) {
+}
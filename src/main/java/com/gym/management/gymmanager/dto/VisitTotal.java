@@ -0,0 +1,8 @@
+package com.gym.management.gymmanager.dto;
+
+// Сумма посещений из чекпоинтов по эндпоинту и залу
+public record VisitTotal(
+        String endpoint,
+        Long gymId,
+        Long total) {
+}
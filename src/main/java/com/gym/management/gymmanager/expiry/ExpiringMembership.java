@@ -0,0 +1,6 @@
+package com.gym.management.gymmanager.expiry;
+
+import java.time.LocalDate;
+
+public record ExpiringMembership(long membershipId, long personId, LocalDate endDate) {
+}
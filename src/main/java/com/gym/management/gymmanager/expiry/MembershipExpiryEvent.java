@@ -0,0 +1,16 @@
+package com.gym.management.gymmanager.expiry;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Порция абонементов с одной датой окончания. EXPIRED — срок уже вышел, абонементы
+ * убраны из индекса; UPCOMING — истекают через notice-days, для кампаний продления.
+ */
+public record MembershipExpiryEvent(Kind kind, LocalDate endDate, List<ExpiringMembership> memberships) {
+
+    public enum Kind {
+        EXPIRED,
+        UPCOMING
+    }
+}
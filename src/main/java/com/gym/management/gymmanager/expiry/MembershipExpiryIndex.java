@@ -0,0 +1,158 @@
+package com.gym.management.gymmanager.expiry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Действующие абонементы, разложенные по дню окончания (epoch day). В корзине дня —
+ * параллельные массивы long с ID абонемента и клиента, без упаковки в объекты.
+ * Запрос за диапазон дат обходит только корзины этого диапазона.
+ */
+public class MembershipExpiryIndex {
+
+    private static final class Bucket {
+        long[] membershipIds = new long[4];
+        long[] personIds = new long[4];
+        int size;
+
+        void add(long membershipId, long personId) {
+            if (size == membershipIds.length) {
+                membershipIds = Arrays.copyOf(membershipIds, size * 2);
+                personIds = Arrays.copyOf(personIds, size * 2);
+            }
+            membershipIds[size] = membershipId;
+            personIds[size] = personId;
+            size++;
+        }
+
+        // Порядок внутри дня не важен: на место удалённого встаёт последний
+        boolean remove(long membershipId) {
+            for (int i = 0; i < size; i++) {
+                if (membershipIds[i] == membershipId) {
+                    size--;
+                    membershipIds[i] = membershipIds[size];
+                    personIds[i] = personIds[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final NavigableMap<Long, Bucket> buckets = new TreeMap<>();
+    private final Map<Long, Long> dayByMembership = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Добавляет абонемент или переносит его на новую дату окончания
+    public void put(long membershipId, long personId, LocalDate endDate) {
+        long day = endDate.toEpochDay();
+        lock.writeLock().lock();
+        try {
+            removeLocked(membershipId);
+            buckets.computeIfAbsent(day, d -> new Bucket()).add(membershipId, personId);
+            dayByMembership.put(membershipId, day);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long membershipId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(membershipId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(long membershipId) {
+        Long day = dayByMembership.remove(membershipId);
+        if (day == null) {
+            return false;
+        }
+        Bucket bucket = buckets.get(day);
+        bucket.remove(membershipId);
+        if (bucket.size == 0) {
+            buckets.remove(day);
+        }
+        return true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return dayByMembership.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Сколько абонементов истекает в днях [from, to] включительно
+    public int count(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (Bucket bucket : range(from, to).values()) {
+                count += bucket.size;
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Не больше limit абонементов из [from, to] в порядке даты окончания
+    public List<ExpiringMembership> find(LocalDate from, LocalDate to, int limit) {
+        List<ExpiringMembership> result = new ArrayList<>(Math.min(limit, 1024));
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Bucket> entry : range(from, to).entrySet()) {
+                LocalDate endDate = LocalDate.ofEpochDay(entry.getKey());
+                Bucket bucket = entry.getValue();
+                for (int i = 0; i < bucket.size; i++) {
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                    result.add(new ExpiringMembership(bucket.membershipIds[i], bucket.personIds[i], endDate));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Вынимает из индекса все абонементы, истёкшие раньше day, по дням
+    public NavigableMap<LocalDate, List<ExpiringMembership>> drainBefore(LocalDate day) {
+        NavigableMap<LocalDate, List<ExpiringMembership>> drained = new TreeMap<>();
+        lock.writeLock().lock();
+        try {
+            NavigableMap<Long, Bucket> expired = buckets.headMap(day.toEpochDay(), false);
+            for (Map.Entry<Long, Bucket> entry : expired.entrySet()) {
+                LocalDate endDate = LocalDate.ofEpochDay(entry.getKey());
+                Bucket bucket = entry.getValue();
+                List<ExpiringMembership> memberships = new ArrayList<>(bucket.size);
+                for (int i = 0; i < bucket.size; i++) {
+                    memberships.add(new ExpiringMembership(bucket.membershipIds[i], bucket.personIds[i], endDate));
+                    dayByMembership.remove(bucket.membershipIds[i]);
+                }
+                drained.put(endDate, memberships);
+            }
+            expired.clear();
+            return drained;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private NavigableMap<Long, Bucket> range(LocalDate from, LocalDate to) {
+        return buckets.subMap(from.toEpochDay(), true, to.toEpochDay(), true);
+    }
+}
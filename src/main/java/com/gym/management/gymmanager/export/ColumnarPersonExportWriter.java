@@ -0,0 +1,218 @@
+package com.gym.management.gymmanager.export;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Колоночный формат выгрузки (.gmcol) по образцу Parquet: строки копятся группами по
+ * rowGroupSize, внутри группы каждая колонка кодируется в свой direct-буфер и пишется
+ * в файл одной секцией. Память — на одну группу независимо от размера выгрузки.
+ *
+ * <pre>
+ * "GMCOL001"
+ * группа строк: для каждой колонки по порядку —
+ *     int длина секции, битмап присутствия ((rows + 7) / 8 байт, бит 1 — значение есть),
+ *     значения только для непустых строк
+ * footer: short число колонок, для каждой — varint длина и UTF-8 имени, byte тип;
+ *     int число групп, для каждой — long смещение от начала файла и int число строк;
+ *     long всего строк
+ * int длина footer, "GMCOL001"
+ * </pre>
+ * Числа фиксированной длины — big-endian, varint — беззнаковый LEB128.
+ * INT64 — zigzag-varint разности с предыдущим значением колонки в группе (ID идут по
+ * возрастанию, разности малы); STRING — varint длина и UTF-8; DICTIONARY — словарь
+ * группы (varint размер, строки как STRING), затем varint коды; DATE — zigzag-varint
+ * дня эпохи.
+ */
+final class ColumnarPersonExportWriter implements PersonExportWriter {
+    static final byte[] MAGIC = "GMCOL001".getBytes(StandardCharsets.US_ASCII);
+    private static final int OUTPUT_BYTES = 256 * 1024;
+    private static final int COLUMN_BYTES = 64 * 1024;
+
+    enum ColumnType {
+        INT64(1), STRING(2), DICTIONARY(3), DATE(4);
+
+        final byte code;
+
+        ColumnType(int code) {
+            this.code = (byte) code;
+        }
+    }
+
+    private static final class Column {
+        final String name;
+        final ColumnType type;
+        final OffHeapBuffer values = new OffHeapBuffer(COLUMN_BYTES, null);
+        final byte[] present;
+        final Map<String, Integer> dictionary = new HashMap<>();
+        final List<String> dictionaryValues = new ArrayList<>();
+        long previous;
+
+        Column(String name, ColumnType type, int rowGroupSize) {
+            this.name = name;
+            this.type = type;
+            this.present = new byte[(rowGroupSize + 7) >>> 3];
+        }
+
+        void reset() {
+            values.clear();
+            Arrays.fill(present, (byte) 0);
+            dictionary.clear();
+            dictionaryValues.clear();
+            previous = 0;
+        }
+    }
+
+    private final OffHeapBuffer out;
+    private final OffHeapBuffer dictionaryBuffer = new OffHeapBuffer(COLUMN_BYTES, null);
+    private final int rowGroupSize;
+    private final Column id;
+    private final Column name;
+    private final Column phoneNumber;
+    private final Column trainerId;
+    private final Column trainerName;
+    private final Column gymId;
+    private final Column gymType;
+    private final Column gymAddress;
+    private final Column membershipType;
+    private final Column membershipStart;
+    private final Column membershipEnd;
+    private final Column[] columns;
+    private final List<Long> groupOffsets = new ArrayList<>();
+    private final List<Integer> groupRows = new ArrayList<>();
+    private int rows;
+    private long totalRows;
+
+    ColumnarPersonExportWriter(FileChannel channel, int rowGroupSize) throws IOException {
+        this.out = new OffHeapBuffer(OUTPUT_BYTES, channel);
+        this.rowGroupSize = rowGroupSize;
+        this.id = new Column("id", ColumnType.INT64, rowGroupSize);
+        this.name = new Column("name", ColumnType.STRING, rowGroupSize);
+        this.phoneNumber = new Column("phone_number", ColumnType.STRING, rowGroupSize);
+        this.trainerId = new Column("trainer_id", ColumnType.INT64, rowGroupSize);
+        this.trainerName = new Column("trainer_name", ColumnType.DICTIONARY, rowGroupSize);
+        this.gymId = new Column("gym_id", ColumnType.INT64, rowGroupSize);
+        this.gymType = new Column("gym_type", ColumnType.DICTIONARY, rowGroupSize);
+        this.gymAddress = new Column("gym_address", ColumnType.DICTIONARY, rowGroupSize);
+        this.membershipType = new Column("membership_type", ColumnType.DICTIONARY, rowGroupSize);
+        this.membershipStart = new Column("membership_start", ColumnType.DATE, rowGroupSize);
+        this.membershipEnd = new Column("membership_end", ColumnType.DATE, rowGroupSize);
+        this.columns = new Column[] {id, name, phoneNumber, trainerId, trainerName, gymId, gymType, gymAddress,
+                membershipType, membershipStart, membershipEnd};
+        out.putBytes(MAGIC, 0, MAGIC.length);
+    }
+
+    @Override
+    public void write(PersonExportRow row) throws IOException {
+        putLong(id, row.id());
+        putString(name, row.name());
+        putString(phoneNumber, row.phoneNumber());
+        putLong(trainerId, row.trainerId());
+        putString(trainerName, row.trainerName());
+        putLong(gymId, row.gymId());
+        putString(gymType, row.gymType());
+        putString(gymAddress, row.gymAddress());
+        putString(membershipType, row.membershipType());
+        putDate(membershipStart, row.membershipStart());
+        putDate(membershipEnd, row.membershipEnd());
+        if (++rows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    private void putLong(Column column, Long value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        markPresent(column);
+        column.values.putZigZag(value - column.previous);
+        column.previous = value;
+    }
+
+    private void putString(Column column, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        markPresent(column);
+        if (column.type == ColumnType.DICTIONARY) {
+            Integer code = column.dictionary.get(value);
+            if (code == null) {
+                code = column.dictionaryValues.size();
+                column.dictionary.put(value, code);
+                column.dictionaryValues.add(value);
+            }
+            column.values.putVarLong(code);
+        } else {
+            column.values.putVarLong(OffHeapBuffer.utf8Length(value));
+            column.values.putUtf8(value);
+        }
+    }
+
+    private void putDate(Column column, LocalDate value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        markPresent(column);
+        column.values.putZigZag(value.toEpochDay());
+    }
+
+    private void markPresent(Column column) {
+        column.present[rows >>> 3] |= (byte) (1 << (rows & 7));
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        groupOffsets.add(out.position());
+        groupRows.add(rows);
+        int bitmapBytes = (rows + 7) >>> 3;
+        for (Column column : columns) {
+            dictionaryBuffer.clear();
+            if (column.type == ColumnType.DICTIONARY) {
+                dictionaryBuffer.putVarLong(column.dictionaryValues.size());
+                for (String value : column.dictionaryValues) {
+                    dictionaryBuffer.putVarLong(OffHeapBuffer.utf8Length(value));
+                    dictionaryBuffer.putUtf8(value);
+                }
+            }
+            out.putInt(bitmapBytes + dictionaryBuffer.size() + column.values.size());
+            out.putBytes(column.present, 0, bitmapBytes);
+            if (dictionaryBuffer.size() > 0) {
+                out.append(dictionaryBuffer);
+            }
+            out.append(column.values);
+            column.reset();
+        }
+        totalRows += rows;
+        rows = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushRowGroup();
+        long footerStart = out.position();
+        out.putShort(columns.length);
+        for (Column column : columns) {
+            out.putVarLong(OffHeapBuffer.utf8Length(column.name));
+            out.putUtf8(column.name);
+            out.putByte(column.type.code);
+        }
+        out.putInt(groupOffsets.size());
+        for (int i = 0; i < groupOffsets.size(); i++) {
+            out.putLong(groupOffsets.get(i));
+            out.putInt(groupRows.get(i));
+        }
+        out.putLong(totalRows);
+        out.putInt((int) (out.position() - footerStart));
+        out.putBytes(MAGIC, 0, MAGIC.length);
+        out.flush();
+    }
+}
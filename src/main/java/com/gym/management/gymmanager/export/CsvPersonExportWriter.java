@@ -0,0 +1,77 @@
+package com.gym.management.gymmanager.export;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.time.LocalDate;
+
+// CSV с заголовком; кодируется сразу в direct-буфер, который сливается в файл по заполнении
+final class CsvPersonExportWriter implements PersonExportWriter {
+    static final String HEADER = "id,name,phone_number,trainer_id,trainer_name,gym_id,gym_type,gym_address,"
+            + "membership_type,membership_start,membership_end\n";
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private final OffHeapBuffer out;
+
+    CsvPersonExportWriter(FileChannel channel) throws IOException {
+        this.out = new OffHeapBuffer(BUFFER_BYTES, channel);
+        out.putUtf8(HEADER);
+    }
+
+    @Override
+    public void write(PersonExportRow row) throws IOException {
+        out.putUtf8(Long.toString(row.id()));
+        out.putByte(',');
+        writeText(row.name());
+        out.putByte(',');
+        writeText(row.phoneNumber());
+        out.putByte(',');
+        writeId(row.trainerId());
+        out.putByte(',');
+        writeText(row.trainerName());
+        out.putByte(',');
+        writeId(row.gymId());
+        out.putByte(',');
+        writeText(row.gymType());
+        out.putByte(',');
+        writeText(row.gymAddress());
+        out.putByte(',');
+        writeText(row.membershipType());
+        out.putByte(',');
+        writeDate(row.membershipStart());
+        out.putByte(',');
+        writeDate(row.membershipEnd());
+        out.putByte('\n');
+    }
+
+    private void writeId(Long id) throws IOException {
+        if (id != null) {
+            out.putUtf8(id.toString());
+        }
+    }
+
+    private void writeDate(LocalDate date) throws IOException {
+        if (date != null) {
+            out.putUtf8(date.toString());
+        }
+    }
+
+    // Кавычки только там, где без них сломается разбор
+    private void writeText(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            out.putUtf8(value);
+            return;
+        }
+        out.putByte('"');
+        out.putUtf8(value.replace("\"", "\"\""));
+        out.putByte('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+}
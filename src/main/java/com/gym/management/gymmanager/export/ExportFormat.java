@@ -0,0 +1,36 @@
+package com.gym.management.gymmanager.export;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.util.Locale;
+
+public enum ExportFormat {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    COLUMNAR("gmcol", "application/octet-stream");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static ExportFormat resolve(String format) {
+        if (format == null || format.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Неизвестный формат выгрузки: " + format);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.gym.management.gymmanager.export;
+
+import com.gym.management.gymmanager.task.BackgroundTask;
+
+public class ExportTask extends BackgroundTask {
+    private final ExportFormat format;
+    private volatile long rows;
+
+    public ExportTask(ExportFormat format) {
+        this.format = format;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+}
@@ -0,0 +1,165 @@
+package com.gym.management.gymmanager.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct-буфер для кодирования выгрузки вне кучи. С каналом буфер фиксированного размера
+ * и при заполнении сливается в канал; без канала — растёт и копится целиком (колонка
+ * одной группы строк), а потом одним вызовом уходит в канал через {@link #writeTo}.
+ */
+final class OffHeapBuffer {
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer buffer;
+    private long drained;
+
+    OffHeapBuffer(int capacity, WritableByteChannel channel) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+        this.channel = channel;
+    }
+
+    // Смещение следующего байта от начала: слитое в канал плюс лежащее в буфере
+    long position() {
+        return drained + buffer.position();
+    }
+
+    int size() {
+        return buffer.position();
+    }
+
+    void putByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    void putShort(int value) throws IOException {
+        ensure(Short.BYTES);
+        buffer.putShort((short) value);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    void putBytes(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            ensure(1);
+            int chunk = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    // Беззнаковый LEB128: 7 бит на байт, старший бит — «дальше есть ещё»
+    void putVarLong(long value) throws IOException {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    // Знаковые значения (разности ID, дни эпохи) через zigzag, чтобы малые по модулю были короткими
+    void putZigZag(long value) throws IOException {
+        putVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void putUtf8(CharSequence value) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(value);
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            makeRoom();
+        }
+        CoderResult result;
+        while ((result = encoder.flush(buffer)).isOverflow()) {
+            makeRoom();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+    }
+
+    // Длина строки в UTF-8 без кодирования; одиночный суррогат кодировщик заменит на '?'
+    static int utf8Length(CharSequence value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    // Всё накопленное — в target, буфер остаётся пустым для следующей группы строк
+    void writeTo(WritableByteChannel target) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        drained += buffer.limit();
+        buffer.clear();
+    }
+
+    // Содержимое source уходит в канал следом за уже записанным, минуя этот буфер
+    void append(OffHeapBuffer source) throws IOException {
+        writeTo(channel);
+        long bytes = source.size();
+        source.writeTo(channel);
+        drained += bytes;
+    }
+
+    void clear() {
+        buffer.clear();
+    }
+
+    void flush() throws IOException {
+        if (channel != null) {
+            writeTo(channel);
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            makeRoom();
+        }
+    }
+
+    private void makeRoom() throws IOException {
+        if (channel != null) {
+            writeTo(channel);
+            return;
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
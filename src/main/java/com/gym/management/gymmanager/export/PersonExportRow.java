@@ -0,0 +1,17 @@
+package com.gym.management.gymmanager.export;
+
+import java.time.LocalDate;
+
+// Клиент с тренером, залом и абонементом; null — связи нет
+public record PersonExportRow(long id,
+                              String name,
+                              String phoneNumber,
+                              Long trainerId,
+                              String trainerName,
+                              Long gymId,
+                              String gymType,
+                              String gymAddress,
+                              String membershipType,
+                              LocalDate membershipStart,
+                              LocalDate membershipEnd) {
+}
@@ -0,0 +1,17 @@
+package com.gym.management.gymmanager.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+// close() дописывает хвост файла (последнюю группу строк, footer) и сбрасывает буферы
+public interface PersonExportWriter extends Closeable {
+
+    void write(PersonExportRow row) throws IOException;
+
+    static PersonExportWriter open(ExportFormat format, FileChannel channel, int rowGroupSize) throws IOException {
+        return format == ExportFormat.COLUMNAR
+                ? new ColumnarPersonExportWriter(channel, rowGroupSize)
+                : new CsvPersonExportWriter(channel);
+    }
+}
@@ -0,0 +1,23 @@
+package com.gym.management.gymmanager.importing;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.util.Locale;
+
+public enum PersonImportFormat {
+    CSV, NDJSON;
+
+    public static PersonImportFormat resolve(String format, String fileName) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Неизвестный формат импорта: " + format);
+            }
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return CSV;
+    }
+}
@@ -0,0 +1,125 @@
+package com.gym.management.gymmanager.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Построчный разбор файла импорта. CSV — с заголовком (name,phone_number,trainer_id,gym_id,
+// порядок любой; многострочные значения в кавычках не поддерживаются), NDJSON — один объект
+// {"name", "phoneNumber", "trainerId", "gymId"} на строку.
+public class PersonImportParser {
+    private final PersonImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+
+    public PersonImportParser(PersonImportFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // Возвращает null для пустых строк и строки заголовка CSV
+    public PersonImportRow parseLine(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
+        return format == PersonImportFormat.CSV ? parseCsv(line) : parseNdjson(line);
+    }
+
+    private PersonImportRow parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (csvColumns == null) {
+            csvColumns = new HashMap<>();
+            for (int i = 0; i < values.size(); i++) {
+                csvColumns.put(normalizeColumn(values.get(i)), i);
+            }
+            if (!csvColumns.containsKey("name")) {
+                throw new ValidationException("В заголовке CSV нет колонки name");
+            }
+            return null;
+        }
+        return new PersonImportRow(
+                csvValue(values, "name"),
+                csvValue(values, "phonenumber"),
+                parseId(csvValue(values, "trainerid"), "trainer_id"),
+                parseId(csvValue(values, "gymid"), "gym_id"));
+    }
+
+    private PersonImportRow parseNdjson(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Некорректный JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject()) {
+            throw new ValidationException("Ожидался JSON-объект");
+        }
+        return new PersonImportRow(
+                textOrNull(node.get("name")),
+                textOrNull(node.get("phoneNumber")),
+                parseId(textOrNull(node.get("trainerId")), "trainerId"),
+                parseId(textOrNull(node.get("gymId")), "gymId"));
+    }
+
+    private String csvValue(List<String> values, String column) {
+        Integer index = csvColumns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizeColumn(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String textOrNull(JsonNode node) {
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    private static Long parseId(String value, String field) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Поле " + field + " должно быть числом: " + value);
+        }
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
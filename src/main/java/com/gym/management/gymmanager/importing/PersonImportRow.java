@@ -0,0 +1,4 @@
+package com.gym.management.gymmanager.importing;
+
+public record PersonImportRow(String name, String phoneNumber, Long trainerId, Long gymId) {
+}
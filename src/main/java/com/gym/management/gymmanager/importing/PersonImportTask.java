@@ -0,0 +1,79 @@
+package com.gym.management.gymmanager.importing;
+
+import com.gym.management.gymmanager.task.BackgroundTask;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PersonImportTask extends BackgroundTask {
+    public record RowError(long line, String message) {
+    }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String fileName;
+    private final PersonImportFormat format;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<RowError> errors = Collections.synchronizedList(new ArrayList<>());
+    private volatile String failureMessage;
+
+    public PersonImportTask(String fileName, PersonImportFormat format) {
+        this.fileName = fileName;
+        this.format = format;
+    }
+
+    public void fail(String message) {
+        failureMessage = message;
+        setStatus(Status.FAILED);
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void rowsImported(long count) {
+        rowsImported.addAndGet(count);
+    }
+
+    // Храним только первые ошибки, чтобы отчёт по битому файлу не съел память;
+    // общее число отклонённых строк считается всегда
+    public void rowRejected(long line, String message) {
+        rowsRejected.incrementAndGet();
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public PersonImportFormat getFormat() {
+        return format;
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected.get();
+    }
+
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.management.gymmanager.ingest;
+
+/**
+ * Переиспользуемая порция посещений в параллельных массивах. gymId 0 — зал не указан.
+ */
+public class VisitBatch {
+    private final long[] personIds;
+    private final long[] gymIds;
+    private final long[] visitedAt;
+    private int size;
+
+    public VisitBatch(int capacity) {
+        this.personIds = new long[capacity];
+        this.gymIds = new long[capacity];
+        this.visitedAt = new long[capacity];
+    }
+
+    public boolean add(long personId, long gymId, long visitedAtMillis) {
+        if (size == personIds.length) {
+            return false;
+        }
+        personIds[size] = personId;
+        gymIds[size] = gymId;
+        visitedAt[size] = visitedAtMillis;
+        size++;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return personIds.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == personIds.length;
+    }
+
+    public long personId(int i) {
+        return personIds[i];
+    }
+
+    public long gymId(int i) {
+        return gymIds[i];
+    }
+
+    public long visitedAt(int i) {
+        return visitedAt[i];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
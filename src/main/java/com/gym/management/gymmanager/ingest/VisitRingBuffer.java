@@ -0,0 +1,79 @@
+package com.gym.management.gymmanager.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кольцевой буфер посещений по схеме Disruptor: много производителей, один потребитель.
+ * Производитель занимает номер CAS-ом, пишет поля в массивы и публикует ячейку,
+ * записав в неё свой номер. Потребитель забирает подряд опубликованные ячейки и
+ * сдвигает head, освобождая их. Блокировок нет; при заполнении offer сразу отказывает.
+ */
+public class VisitRingBuffer {
+    private final int capacity;
+    private final int mask;
+    private final long[] personIds;
+    private final long[] gymIds;
+    private final long[] visitedAt;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    // Следующий номер для потребителя; пишет только он
+    private volatile long head;
+
+    public VisitRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ёмкость буфера должна быть степенью двойки: " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.personIds = new long[capacity];
+        this.gymIds = new long[capacity];
+        this.visitedAt = new long[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public boolean offer(long personId, long gymId, long visitedAtMillis) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= capacity) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) sequence & mask;
+        personIds[slot] = personId;
+        gymIds[slot] = gymId;
+        visitedAt[slot] = visitedAtMillis;
+        published.set(slot, sequence);
+        return true;
+    }
+
+    // Только для единственного потребителя: переносит в batch опубликованные подряд события
+    public int drainTo(VisitBatch batch) {
+        long next = head;
+        int drained = 0;
+        while (!batch.isFull()) {
+            int slot = (int) next & mask;
+            if (published.get(slot) != next) {
+                break;
+            }
+            batch.add(personIds[slot], gymIds[slot], visitedAt[slot]);
+            next++;
+            drained++;
+        }
+        head = next;
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
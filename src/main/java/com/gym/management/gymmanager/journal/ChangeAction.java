@@ -0,0 +1,15 @@
+package com.gym.management.gymmanager.journal;
+
+public enum ChangeAction {
+    CREATE,
+    UPDATE,
+    DELETE;
+
+    public short code() {
+        return (short) (ordinal() + 1);
+    }
+
+    public static ChangeAction ofCode(short code) {
+        return code >= 1 && code <= values().length ? values()[code - 1] : null;
+    }
+}
@@ -0,0 +1,284 @@
+package com.gym.management.gymmanager.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал событий из отображённых в память сегментов. Записи фиксированные, по 48 байт:
+ * <pre>
+ *  0  int   CRC32 байтов 4..47
+ *  4  short тип (JournalRecordType)
+ *  6  short действие (ChangeAction)
+ *  8  long  номер записи + 1 — признак готовности, пишется последним
+ * 16  long  a, 24 long b, 32 long c
+ * 40  long  время события, мс
+ * </pre>
+ * Номер записи задаёт и сегмент, и смещение в нём, так что запись не требует блокировок:
+ * номер занимается атомарно, байты пишутся прямо в отображение. На диск сегменты
+ * сбрасывает flush() — один fsync на все записи с прошлого вызова.
+ */
+public class Journal implements Closeable {
+    public static final int RECORD_BYTES = 48;
+
+    public enum ReadStatus {
+        VALID,
+        // Номер занят, но запись ещё не дописана
+        PENDING,
+        CORRUPT,
+        // Сегмента нет: он старше самого раннего сегмента на диске и уже удалён
+        MISSING
+    }
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MARKER_OFFSET = 8;
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // Буфер для сборки записи и подсчёта CRC, свой у каждого потока
+    private static final class Scratch {
+        final ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES);
+        final CRC32 crc = new CRC32();
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long recordsPerSegment;
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long flushedSequence;
+    // Самый ранний сегмент, который ещё может быть на диске; сегменты от него и дальше не пропадают
+    private volatile long firstSegment;
+
+    private Journal(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.recordsPerSegment = segmentBytes / RECORD_BYTES;
+        this.segmentBytes = (int) recordsPerSegment * RECORD_BYTES;
+    }
+
+    /**
+     * Открывает журнал в каталоге. Следующий номер — после последней записи последнего
+     * сегмента, но не меньше minSequence (после удаления всех сегментов нумерация не
+     * должна начаться заново).
+     */
+    public static Journal open(Path directory, int segmentBytes, long minSequence) throws IOException {
+        if (segmentBytes < RECORD_BYTES) {
+            throw new IllegalArgumentException("Сегмент журнала меньше одной записи: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, segmentBytes);
+        long next = minSequence;
+        List<Long> indexes = journal.segmentIndexes();
+        journal.firstSegment = minSequence / journal.recordsPerSegment;
+        if (!indexes.isEmpty()) {
+            journal.firstSegment = Math.min(journal.firstSegment, indexes.get(0));
+            long last = indexes.get(indexes.size() - 1);
+            MappedByteBuffer segment = journal.segment(last, false);
+            next = Math.max(next, last * journal.recordsPerSegment);
+            for (long i = journal.recordsPerSegment - 1; i >= 0; i--) {
+                if ((long) LONG.getAcquire(segment, (int) i * RECORD_BYTES + MARKER_OFFSET) != 0) {
+                    next = Math.max(next, last * journal.recordsPerSegment + i + 1);
+                    break;
+                }
+            }
+        }
+        journal.nextSequence.set(next);
+        journal.flushedSequence = next;
+        return journal;
+    }
+
+    public long append(JournalRecordType type, short action, long a, long b, long c, long timestampMillis) {
+        long sequence = nextSequence.getAndIncrement();
+        MappedByteBuffer segment = segment(sequence / recordsPerSegment, true);
+        int offset = (int) (sequence % recordsPerSegment) * RECORD_BYTES;
+
+        Scratch scratch = SCRATCH.get();
+        ByteBuffer record = scratch.buffer;
+        record.putShort(4, type.code())
+                .putShort(6, action)
+                .putLong(MARKER_OFFSET, sequence + 1)
+                .putLong(16, a)
+                .putLong(24, b)
+                .putLong(32, c)
+                .putLong(40, timestampMillis);
+        scratch.crc.reset();
+        scratch.crc.update(record.array(), 4, RECORD_BYTES - 4);
+        record.putInt(0, (int) scratch.crc.getValue());
+
+        segment.put(offset, record.array(), 0, MARKER_OFFSET);
+        segment.put(offset + 16, record.array(), 16, RECORD_BYTES - 16);
+        // Читатель, увидевший признак, видит и все байты записи
+        LONG.setRelease(segment, offset + MARKER_OFFSET, sequence + 1);
+        return sequence;
+    }
+
+    public ReadStatus read(long sequence, JournalEntry entry) {
+        long index = sequence / recordsPerSegment;
+        MappedByteBuffer segment = segment(index, false);
+        if (segment == null) {
+            // Номер в новом сегменте уже занят, а файл ещё создаётся — запись просто не готова
+            return index < firstSegment ? ReadStatus.MISSING : ReadStatus.PENDING;
+        }
+        int offset = (int) (sequence % recordsPerSegment) * RECORD_BYTES;
+        long marker = (long) LONG.getAcquire(segment, offset + MARKER_OFFSET);
+        if (marker == 0) {
+            return ReadStatus.PENDING;
+        }
+        Scratch scratch = SCRATCH.get();
+        ByteBuffer record = scratch.buffer;
+        segment.get(offset, record.array(), 0, RECORD_BYTES);
+        scratch.crc.reset();
+        scratch.crc.update(record.array(), 4, RECORD_BYTES - 4);
+        if (marker != sequence + 1 || record.getInt(0) != (int) scratch.crc.getValue()) {
+            return ReadStatus.CORRUPT;
+        }
+        entry.sequence = sequence;
+        entry.type = record.getShort(4);
+        entry.action = record.getShort(6);
+        entry.a = record.getLong(16);
+        entry.b = record.getLong(24);
+        entry.c = record.getLong(32);
+        entry.timestampMillis = record.getLong(40);
+        return ReadStatus.VALID;
+    }
+
+    /**
+     * Групповой fsync всего, что занято до вызова. flushedSequence сдвигается только до
+     * первой ещё не дописанной записи: с неё следующий flush начнёт снова, так что запись,
+     * дописанная уже после force, тоже попадёт на диск.
+     */
+    public void flush() {
+        long target = nextSequence.get();
+        long from = flushedSequence;
+        if (target <= from) {
+            return;
+        }
+        // Границу считаем до force: всё опубликованное до неё force гарантированно захватит
+        long published = from;
+        while (published < target && isPublished(published)) {
+            published++;
+        }
+        for (long index = from / recordsPerSegment; index <= (target - 1) / recordsPerSegment; index++) {
+            MappedByteBuffer segment = segments.get(index);
+            if (segment == null) {
+                continue;
+            }
+            long segmentStart = index * recordsPerSegment;
+            int start = (int) (Math.max(from, segmentStart) - segmentStart) * RECORD_BYTES;
+            int end = (int) (Math.min(target, segmentStart + recordsPerSegment) - segmentStart) * RECORD_BYTES;
+            segment.force(start, end - start);
+        }
+        flushedSequence = published;
+    }
+
+    private boolean isPublished(long sequence) {
+        MappedByteBuffer segment = segments.get(sequence / recordsPerSegment);
+        int offset = (int) (sequence % recordsPerSegment) * RECORD_BYTES;
+        return segment != null && (long) LONG.getAcquire(segment, offset + MARKER_OFFSET) != 0;
+    }
+
+    /**
+     * Удаляет сегменты, все записи которых меньше sequence. Текущий сегмент остаётся
+     * всегда: по нему при открытии восстанавливается следующий номер.
+     */
+    public int deleteBefore(long sequence) {
+        long current = Math.max(0, nextSequence.get() - 1) / recordsPerSegment;
+        int deleted = 0;
+        for (long index : segmentIndexes()) {
+            if (index >= current || (index + 1) * recordsPerSegment > sequence) {
+                break;
+            }
+            // Сначала граница, потом файл: читатель не должен принять удалённый сегмент за создаваемый
+            firstSegment = index + 1;
+            segments.remove(index);
+            try {
+                Files.deleteIfExists(segmentPath(index));
+                deleted++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return deleted;
+    }
+
+    public long nextSequence() {
+        return nextSequence.get();
+    }
+
+    public long flushedSequence() {
+        return flushedSequence;
+    }
+
+    public long recordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    @Override
+    public void close() {
+        flush();
+        segments.clear();
+    }
+
+    private MappedByteBuffer segment(long index, boolean create) {
+        MappedByteBuffer segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        synchronized (segments) {
+            segment = segments.get(index);
+            if (segment != null) {
+                return segment;
+            }
+            Path path = segmentPath(index);
+            if (!create && !Files.exists(path)) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() != 0 && channel.size() != segmentBytes) {
+                    throw new IllegalStateException("Размер сегмента " + path + " не совпадает с настроенным "
+                            + segmentBytes);
+                }
+                segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments.put(index, segment);
+            return segment;
+        }
+    }
+
+    private List<Long> segmentIndexes() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,44 @@
+package com.gym.management.gymmanager.journal;
+
+/**
+ * Прочитанная запись журнала. Объект переиспользуется при чтении подряд, поля
+ * перезаписываются каждым Journal.read. Для посещения a — клиент, b — зал;
+ * для изменения сущности a — её ID, b и c — связанные ID (у клиента — зал и тренер).
+ */
+public class JournalEntry {
+    long sequence;
+    short type;
+    short action;
+    long a;
+    long b;
+    long c;
+    long timestampMillis;
+
+    public long sequence() {
+        return sequence;
+    }
+
+    public JournalRecordType type() {
+        return JournalRecordType.ofCode(type);
+    }
+
+    public ChangeAction action() {
+        return ChangeAction.ofCode(action);
+    }
+
+    public long a() {
+        return a;
+    }
+
+    public long b() {
+        return b;
+    }
+
+    public long c() {
+        return c;
+    }
+
+    public long timestampMillis() {
+        return timestampMillis;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gym.management.gymmanager.journal;
+
+// Код типа хранится в записи журнала, поэтому коды существующих типов менять нельзя
+public enum JournalRecordType {
+    VISIT(1),
+    PERSON(2),
+    GYM(3),
+    TRAINER(4);
+
+    private final short code;
+
+    JournalRecordType(int code) {
+        this.code = (short) code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public static JournalRecordType ofCode(short code) {
+        for (JournalRecordType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -1,26 +1,15 @@
 package com.gym.management.gymmanager.logging;
 
-import java.util.concurrent.atomic.AtomicReference;
+import com.gym.management.gymmanager.task.BackgroundTask;
 
-public class AsyncLogTask {
-    public enum Status { PENDING, COMPLETED, FAILED, IN_PROGRESS }
+public class AsyncLogTask extends BackgroundTask {
+    private final LogQuery query;
 
-    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
-    private String filePath;
-
-    public Status getStatus() {
-        return status.get();
-    }
-
-    public void setStatus(Status newStatus) {
-        status.set(newStatus);
-    }
-
-    public String getFilePath() {
-        return filePath;
+    public AsyncLogTask(LogQuery query) {
+        this.query = query;
     }
 
-    public void setFilePath(String filePath) {
-        this.filePath = filePath;
+    public LogQuery getQuery() {
+        return query;
     }
 }
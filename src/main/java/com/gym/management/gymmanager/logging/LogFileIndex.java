@@ -0,0 +1,223 @@
+package com.gym.management.gymmanager.logging;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Разреженный индекс лог-файла: для каждой минуты хранится смещение первой строки с этой минутой.
+ * Строится одним проходом по файлу, отображённому в память, и дальше позволяет бинарным поиском
+ * найти байтовую границу любого момента времени. Объект неизменяемый: при росте активного файла
+ * {@link #extend()} возвращает новый индекс, дочитав только добавленный хвост.
+ */
+public final class LogFileIndex {
+    // Строки логов начинаются с "yyyy-MM-dd HH:mm:ss" (см. logback-spring.xml)
+    static final int TIMESTAMP_LENGTH = 19;
+    static final long MAP_WINDOW = 64L * 1024 * 1024;
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final Path path;
+    private final Object fileKey;
+    private final long indexedSize;
+    private final long[] minutes;
+    private final long[] offsets;
+    private final int count;
+
+    private LogFileIndex(Path path, Object fileKey, long indexedSize, long[] minutes, long[] offsets, int count) {
+        this.path = path;
+        this.fileKey = fileKey;
+        this.indexedSize = indexedSize;
+        this.minutes = minutes;
+        this.offsets = offsets;
+        this.count = count;
+    }
+
+    public static LogFileIndex build(Path path) throws IOException {
+        return new LogFileIndex(path, fileKey(path), 0, new long[256], new long[256], 0).extend();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getIndexedSize() {
+        return indexedSize;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public long firstMinute() {
+        return count == 0 ? Long.MAX_VALUE : minutes[0];
+    }
+
+    public long lastMinute() {
+        return count == 0 ? Long.MIN_VALUE : minutes[count - 1];
+    }
+
+    // Дочитывает файл с места, где остановилась прошлая индексация. Если на месте файла
+    // уже другой (ротация) или он стал короче, индекс строится заново.
+    public LogFileIndex extend() throws IOException {
+        Object currentKey = fileKey(path);
+        if (indexedSize > 0 && !currentKey.equals(fileKey)) {
+            return build(path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < indexedSize) {
+                return build(path);
+            }
+            if (size == indexedSize) {
+                return this;
+            }
+
+            long[] newMinutes = Arrays.copyOf(minutes, Math.max(minutes.length, 16));
+            long[] newOffsets = Arrays.copyOf(offsets, newMinutes.length);
+            int newCount = count;
+            long previousMinute = count == 0 ? Long.MIN_VALUE : minutes[count - 1];
+            long position = indexedSize;
+
+            while (position < size) {
+                long windowEnd = Math.min(position + MAP_WINDOW, size);
+                int limit = (int) (windowEnd - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, limit);
+                int lineStart = 0;
+                int lineEnd;
+                while ((lineEnd = indexOf(window, (byte) '\n', lineStart, limit)) >= 0) {
+                    long second = parseEpochSecond(window, lineStart, lineEnd);
+                    if (second != NO_TIMESTAMP) {
+                        long minute = Math.floorDiv(second, 60);
+                        // Строки разных потоков могут чуть перемешиваться; индекс держим монотонным
+                        if (minute > previousMinute) {
+                            if (newCount == newMinutes.length) {
+                                newMinutes = Arrays.copyOf(newMinutes, newCount * 2);
+                                newOffsets = Arrays.copyOf(newOffsets, newCount * 2);
+                            }
+                            newMinutes[newCount] = minute;
+                            newOffsets[newCount] = position + lineStart;
+                            newCount++;
+                            previousMinute = minute;
+                        }
+                    }
+                    lineStart = lineEnd + 1;
+                }
+                if (lineStart == 0 && windowEnd < size) {
+                    // Строка длиннее окна: пропускаем окно целиком
+                    lineStart = limit;
+                }
+                position += lineStart;
+                if (windowEnd == size) {
+                    // Хвост без перевода строки — незавершённая запись активного файла,
+                    // её дочитаем при следующем обращении
+                    break;
+                }
+            }
+            return new LogFileIndex(path, currentKey, position, newMinutes, newOffsets, newCount);
+        }
+    }
+
+    private static Object fileKey(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+    }
+
+    /**
+     * Смещение первой строки с отметкой времени не раньше epochSecond. Поиск идёт бинарно
+     * по минутам, а внутри найденной минуты — коротким сканом до нужной секунды.
+     */
+    public long offsetAtOrAfter(long epochSecond, FileChannel channel) throws IOException {
+        long minute = Math.floorDiv(epochSecond, 60);
+        int idx = lowerBound(minute);
+        if (idx == count) {
+            return indexedSize;
+        }
+        long start = offsets[idx];
+        if (minutes[idx] != minute || Math.floorMod(epochSecond, 60) == 0) {
+            return start;
+        }
+        long end = idx + 1 < count ? offsets[idx + 1] : indexedSize;
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int limit = (int) (end - start);
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = indexOf(window, (byte) '\n', lineStart, limit);
+            if (lineEnd < 0) {
+                lineEnd = limit;
+            }
+            long second = parseEpochSecond(window, lineStart, lineEnd);
+            if (second != NO_TIMESTAMP && second >= epochSecond) {
+                return start + lineStart;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return end;
+    }
+
+    private int lowerBound(long minute) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (minutes[mid] < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static int indexOf(MappedByteBuffer buffer, byte value, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Разбирает "yyyy-MM-dd HH:mm:ss" в начале строки без создания строк; NO_TIMESTAMP,
+    // если строка не начинается с отметки времени (например, стек исключения)
+    static long parseEpochSecond(MappedByteBuffer buffer, int lineStart, int lineEnd) {
+        if (lineEnd - lineStart < TIMESTAMP_LENGTH) {
+            return NO_TIMESTAMP;
+        }
+        int p = lineStart;
+        if (buffer.get(p + 4) != '-' || buffer.get(p + 7) != '-' || buffer.get(p + 10) != ' '
+                || buffer.get(p + 13) != ':' || buffer.get(p + 16) != ':') {
+            return NO_TIMESTAMP;
+        }
+        int year = digits(buffer, p, 4);
+        int month = digits(buffer, p + 5, 2);
+        int day = digits(buffer, p + 8, 2);
+        int hour = digits(buffer, p + 11, 2);
+        int minute = digits(buffer, p + 14, 2);
+        int second = digits(buffer, p + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 28 && day > YearMonth.of(year, month).lengthOfMonth()
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NO_TIMESTAMP;
+        }
+        long epochDay = LocalDate.of(year, month, day).toEpochDay();
+        return epochDay * 86_400 + hour * 3_600L + minute * 60L + second;
+    }
+
+    private static int digits(MappedByteBuffer buffer, int from, int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
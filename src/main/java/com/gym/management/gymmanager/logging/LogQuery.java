@@ -0,0 +1,56 @@
+package com.gym.management.gymmanager.logging;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.function.Function;
+import org.slf4j.event.Level;
+
+/**
+ * Параметры выборки логов: полуинтервал [from, to) и минимальный уровень
+ * (null — без фильтра по уровню).
+ */
+public record LogQuery(LocalDateTime from, LocalDateTime to, Level minLevel) {
+
+    // Либо date=yyyy-MM-dd (весь день), либо from/to в формате yyyy-MM-ddTHH:mm[:ss]
+    public static LogQuery of(String date, String from, String to, String level) {
+        LocalDateTime start;
+        LocalDateTime end;
+        if (date != null) {
+            LocalDate day = parse(date, LocalDate::parse, "date");
+            start = day.atStartOfDay();
+            end = day.plusDays(1).atStartOfDay();
+        } else {
+            start = parse(from, LocalDateTime::parse, "from");
+            end = parse(to, LocalDateTime::parse, "to");
+        }
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Начало интервала должно быть раньше конца");
+        }
+        return new LogQuery(start, end, parseLevel(level));
+    }
+
+    private static Level parseLevel(String level) {
+        if (level == null || level.isBlank()) {
+            return null;
+        }
+        try {
+            return Level.valueOf(level.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Некорректный уровень логирования: " + level);
+        }
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser, String name) {
+        if (value == null || value.isBlank()) {
+            throw new ValidationException("Параметр " + name + " обязателен");
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new ValidationException("Некорректное значение параметра " + name + ": " + value);
+        }
+    }
+}
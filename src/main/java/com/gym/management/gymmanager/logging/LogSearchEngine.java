@@ -0,0 +1,199 @@
+package com.gym.management.gymmanager.logging;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Поиск по лог-файлам приложения за интервал времени. Для каждого файла держится
+ * {@link LogFileIndex}, поэтому выборка сводится к двум бинарным поискам и копированию
+ * найденного диапазона байт через {@link FileChannel#transferTo}.
+ */
+@Component
+public class LogSearchEngine {
+    private static final Logger logger = LoggerFactory.getLogger(LogSearchEngine.class);
+    // Имена файлов задаются в logback-spring.xml
+    private static final Pattern ROLLED_FILE = Pattern.compile("application-(\\d{4}-\\d{2}-\\d{2})\\.log");
+    private static final String ACTIVE_FILE = "application.log";
+    private static final Level[] LEVELS = Level.values();
+
+    private final Path directory;
+    private final Map<Path, LogFileIndex> indexes = new ConcurrentHashMap<>();
+
+    public LogSearchEngine(@Value("${gymmanager.logs.directory:logs}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Копирует в out все записи с отметкой времени в полуинтервале [query.from, query.to)
+     * и уровнем не ниже query.minLevel. Возвращает число скопированных байт.
+     */
+    public long extract(LogQuery query, WritableByteChannel out) throws IOException {
+        long fromSecond = query.from().toEpochSecond(ZoneOffset.UTC);
+        long toSecond = query.to().toEpochSecond(ZoneOffset.UTC);
+        long copied = 0;
+        for (Path file : candidateFiles(query.from().toLocalDate(), query.to().toLocalDate())) {
+            LogFileIndex index = indexFor(file);
+            // Минуты в индексе — границы, по которым файл можно отбросить целиком
+            if (index.isEmpty() || index.lastMinute() < Math.floorDiv(fromSecond, 60)
+                    || index.firstMinute() * 60 >= toSecond) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long start = index.offsetAtOrAfter(fromSecond, channel);
+                long end = index.offsetAtOrAfter(toSecond, channel);
+                copied += query.minLevel() == null
+                        ? transfer(channel, start, end, out)
+                        : transferFiltered(channel, start, end, query.minLevel(), out);
+            }
+        }
+        return copied;
+    }
+
+    private static long transfer(FileChannel channel, long start, long end, WritableByteChannel out) throws IOException {
+        long position = start;
+        while (position < end) {
+            position += channel.transferTo(position, end - position, out);
+        }
+        return end - start;
+    }
+
+    // Подряд идущие подходящие записи (вместе со строками стека) копируются одним transferTo;
+    // строка без отметки времени относится к предыдущей записи и наследует её решение
+    private static long transferFiltered(FileChannel channel, long start, long end, Level minLevel,
+                                         WritableByteChannel out) throws IOException {
+        long copied = 0;
+        long runStart = -1;
+        boolean include = false;
+        long position = start;
+        while (position < end) {
+            long windowEnd = Math.min(position + LogFileIndex.MAP_WINDOW, end);
+            int limit = (int) (windowEnd - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, limit);
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = LogFileIndex.indexOf(window, (byte) '\n', lineStart, limit);
+                if (lineEnd < 0) {
+                    if (lineStart > 0) {
+                        // Строка не поместилась в окно — перечитаем её со следующего окна
+                        break;
+                    }
+                    lineEnd = limit - 1;
+                }
+                if (LogFileIndex.parseEpochSecond(window, lineStart, lineEnd) != LogFileIndex.NO_TIMESTAMP) {
+                    Level level = parseLevel(window, lineStart + LogFileIndex.TIMESTAMP_LENGTH + 1, lineEnd);
+                    include = level != null && level.toInt() >= minLevel.toInt();
+                }
+                long lineOffset = position + lineStart;
+                if (include && runStart < 0) {
+                    runStart = lineOffset;
+                } else if (!include && runStart >= 0) {
+                    copied += transfer(channel, runStart, lineOffset, out);
+                    runStart = -1;
+                }
+                lineStart = lineEnd + 1;
+            }
+            position += lineStart;
+        }
+        if (runStart >= 0) {
+            copied += transfer(channel, runStart, end, out);
+        }
+        return copied;
+    }
+
+    // Уровень в шаблоне %-5level дополнен пробелами до пяти символов
+    private static Level parseLevel(MappedByteBuffer buffer, int from, int lineEnd) {
+        StringBuilder name = new StringBuilder(5);
+        for (int i = from; i < Math.min(from + 5, lineEnd); i++) {
+            byte b = buffer.get(i);
+            if (b == ' ') {
+                break;
+            }
+            name.append((char) b);
+        }
+        for (Level level : LEVELS) {
+            if (level.name().contentEquals(name)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    // Ротированные файлы отбираются по дате в имени; активный файл проверяется всегда
+    private List<Path> candidateFiles(LocalDate fromDate, LocalDate toDate) throws IOException {
+        TreeMap<LocalDate, Path> rolled = new TreeMap<>();
+        Path active = null;
+        if (!Files.isDirectory(directory)) {
+            logger.warn("Log directory does not exist: {}", directory.toAbsolutePath());
+            return List.of();
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "application*.log")) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                Matcher matcher = ROLLED_FILE.matcher(name);
+                if (matcher.matches()) {
+                    try {
+                        rolled.put(LocalDate.parse(matcher.group(1)), file);
+                    } catch (DateTimeParseException e) {
+                        logger.debug("Skipping log file with unexpected name: {}", name);
+                    }
+                } else if (name.equals(ACTIVE_FILE)) {
+                    active = file;
+                }
+            }
+        }
+
+        // Файлы, удалённые по maxHistory, больше не держим в памяти
+        indexes.keySet().removeIf(path -> !rolled.containsValue(path) && !path.getFileName().toString().equals(ACTIVE_FILE));
+
+        List<Path> result = new ArrayList<>(rolled.subMap(fromDate, true, toDate, true).values());
+        if (active != null) {
+            result.add(active);
+        }
+        return result;
+    }
+
+    private LogFileIndex indexFor(Path file) throws IOException {
+        try {
+            return indexes.compute(file, (path, existing) -> {
+                try {
+                    if (existing == null) {
+                        return LogFileIndex.build(path);
+                    }
+                    // Ротированные файлы не меняются, дочитывать имеет смысл только активный
+                    return path.getFileName().toString().equals(ACTIVE_FILE) ? existing.extend() : existing;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,51 +1,159 @@
 package com.gym.management.gymmanager.logging;
 
+import com.gym.management.gymmanager.exception.ResourceNotFoundException;
+import com.gym.management.gymmanager.exception.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Инструментирование сервисов: время каждого вызова пишется в гистограмму
+ * gymmanager.service.calls, а аргументы и результаты логируются только на DEBUG
+ * и только для доли вызовов (payload-sample-rate), в сокращённом виде.
+ */
 @Aspect
 @Component
 public class LoggingAspect {
-    private final Logger logger;
+    private static final Logger logger = LoggerFactory.getLogger(LoggingAspect.class);
+    private static final String TIMER_NAME = "gymmanager.service.calls";
 
-    @Autowired
-    public LoggingAspect(Logger logger) {
-        this.logger = logger;
-    }
+    private final MeterRegistry meterRegistry;
+    private final double payloadSampleRate;
+    private final int maxItems;
+    private final int maxLength;
+    // Таймеры кешируются по методу и исходу, чтобы не собирать теги на каждом вызове
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<Method, Timer> errorTimers = new ConcurrentHashMap<>();
 
-    public LoggingAspect() {
-        this(LoggerFactory.getLogger(LoggingAspect.class));
+    public LoggingAspect(MeterRegistry meterRegistry,
+                         @Value("${gymmanager.logging.aspect.payload-sample-rate:0.01}") double payloadSampleRate,
+                         @Value("${gymmanager.logging.aspect.max-items:5}") int maxItems,
+                         @Value("${gymmanager.logging.aspect.max-length:200}") int maxLength) {
+        this.meterRegistry = meterRegistry;
+        this.payloadSampleRate = payloadSampleRate;
+        this.maxItems = maxItems;
+        this.maxLength = maxLength;
     }
 
-    @Before("execution(* com.gym.management.gymmanager.service..*(..))")
-    public void logBeforeMethodCall(JoinPoint joinPoint) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        if (logger.isInfoEnabled()) {
-    logger.info("Вызов метода: {} с аргументами: {}", 
-                signature.getMethod().getName(),
-                Arrays.toString(joinPoint.getArgs()));
-}
+    @Around("execution(* com.gym.management.gymmanager.service..*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        boolean sampled = logger.isDebugEnabled() && payloadSampleRate > 0
+                && ThreadLocalRandom.current().nextDouble() < payloadSampleRate;
+        if (sampled) {
+            logger.debug("Вызов метода: {} с аргументами: {}", method.getName(), summarize(joinPoint.getArgs()));
+        }
 
-    @AfterReturning(pointcut = "execution(* com.gym.management.gymmanager.service..*(..))",
-            returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        logger.info("Метод {} успешно завершен. Возвращено: {}", signature.getMethod().getName(), result);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timer(successTimers, method, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (sampled) {
+                logger.debug("Метод {} успешно завершен. Возвращено: {}", method.getName(), summarize(result));
+            }
+            return result;
+        } catch (Throwable ex) {
+            timer(errorTimers, method, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
     }
 
-    @AfterThrowing(pointcut = "execution(* com.gym.management.gymmanager..*(..))",
-            throwing = "ex")
+    // Исключение логируется один раз, на выходе из контроллера; ожидаемые ошибки
+    // валидации и "не найдено" — без стека
+    @AfterThrowing(pointcut = "execution(* com.gym.management.gymmanager.controller..*(..))", throwing = "ex")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable ex) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        logger.error("Метод {} выбросил исключение: {}", signature.getMethod().getName(),
-                ex.getMessage(), ex);
+        String methodName = joinPoint.getSignature().getName();
+        if (ex instanceof ValidationException || ex instanceof ResourceNotFoundException) {
+            logger.warn("Метод {} выбросил исключение: {}", methodName, ex.getMessage());
+        } else {
+            logger.error("Метод {} выбросил исключение: {}", methodName, ex.getMessage(), ex);
+        }
+    }
+
+    private Timer timer(Map<Method, Timer> timers, Method method, String outcome) {
+        Timer timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method, m -> Timer.builder(TIMER_NAME)
+                    .tag("class", m.getDeclaringClass().getSimpleName())
+                    .tag("method", m.getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    // Коллекции и массивы — размер и первые maxItems элементов, строки — не длиннее maxLength
+    private String summarize(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Object[] array) {
+            return summarizeItems("Array", array.length, Arrays.asList(array).iterator());
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[size=" + Array.getLength(value) + "]";
+        }
+        if (value instanceof Collection<?> collection) {
+            return summarizeItems(value.getClass().getSimpleName(), collection.size(), collection.iterator());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return summarizeItems(value.getClass().getSimpleName(), map.size(), map.entrySet().iterator());
+        }
+        return truncate(String.valueOf(value));
+    }
+
+    private String summarizeItems(String type, int size, Iterator<?> items) {
+        StringBuilder builder = new StringBuilder(type).append("[size=").append(size);
+        if (size > 0) {
+            builder.append(", items=[");
+            for (int i = 0; i < maxItems && items.hasNext(); i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(summarizeItem(items.next()));
+            }
+            if (size > maxItems) {
+                builder.append(", ...");
+            }
+            builder.append(']');
+        }
+        return builder.append(']').toString();
+    }
+
+    // Вложенные коллекции не разворачиваем: их toString() и есть то, от чего уходим
+    private String summarizeItem(Object item) {
+        if (item instanceof Collection<?> collection) {
+            return item.getClass().getSimpleName() + "[size=" + collection.size() + "]";
+        }
+        if (item instanceof Map<?, ?> map) {
+            return item.getClass().getSimpleName() + "[size=" + map.size() + "]";
+        }
+        if (item != null && item.getClass().isArray()) {
+            return item.getClass().getComponentType().getSimpleName() + "[size=" + Array.getLength(item) + "]";
+        }
+        return truncate(String.valueOf(item));
+    }
+
+    private String truncate(String text) {
+        return text.length() <= maxLength ? text : text.substring(0, maxLength) + "...";
     }
 }
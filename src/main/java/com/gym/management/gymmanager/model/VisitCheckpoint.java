@@ -0,0 +1,63 @@
+package com.gym.management.gymmanager.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+
+// Число посещений за одну минуту в разрезе эндпоинта и зала (gymId = 0 — зал неизвестен)
+@Entity
+@Table(name = "visit_checkpoint",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"endpoint", "gym_id", "bucket_start"}))
+public class VisitCheckpoint {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String endpoint;
+    private long gymId;
+    private Instant bucketStart;
+    private long visits;
+
+    public VisitCheckpoint() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public long getGymId() {
+        return gymId;
+    }
+
+    public void setGymId(long gymId) {
+        this.gymId = gymId;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getVisits() {
+        return visits;
+    }
+
+    public void setVisits(long visits) {
+        this.visits = visits;
+    }
+}
@@ -0,0 +1,48 @@
+package com.gym.management.gymmanager.report;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Отчёт, порции которого уже считаются параллельно. writeTo отдаёт порции в порядке
+ * ID залов, каждую — как только она готова; если клиент отвалился или порция упала,
+ * оставшиеся отменяются.
+ */
+public class GymReport {
+    private final List<Future<List<GymReportRow>>> partitions;
+
+    public GymReport(List<Future<List<GymReportRow>>> partitions) {
+        this.partitions = partitions;
+    }
+
+    public int partitions() {
+        return partitions.size();
+    }
+
+    public void writeTo(GymReportWriter writer) throws IOException {
+        try {
+            for (Future<List<GymReportRow>> partition : partitions) {
+                for (GymReportRow row : partition.get()) {
+                    writer.write(row);
+                }
+                writer.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Построение отчёта прервано");
+        } catch (ExecutionException e) {
+            throw new IOException("Не удалось построить отчёт", e.getCause());
+        } finally {
+            cancel();
+        }
+    }
+
+    public void cancel() {
+        for (Future<List<GymReportRow>> partition : partitions) {
+            partition.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.gym.management.gymmanager.report;
+
+// Строка сетевого отчёта: клиенты, нагрузка тренеров, истекающие абонементы и посещения зала за период
+public record GymReportRow(Long gymId,
+                           String type,
+                           String address,
+                           String number,
+                           long members,
+                           long trainers,
+                           long maxTrainerLoad,
+                           long expiringMemberships,
+                           long visits) {
+}
@@ -0,0 +1,107 @@
+package com.gym.management.gymmanager.report;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Потоковая запись отчёта: строки уходят клиенту по мере готовности, flush() — после
+ * каждой порции залов. close() завершает документ, но не закрывает сам поток ответа.
+ */
+public abstract class GymReportWriter implements Closeable {
+    static final String[] CSV_HEADER = {"gym_id", "type", "address", "number", "members", "trainers",
+            "max_trainer_load", "expiring_memberships", "visits"};
+
+    public static GymReportWriter open(ReportFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return format == ReportFormat.JSON ? new Json(out, objectMapper) : new Csv(out);
+    }
+
+    public abstract void write(GymReportRow row) throws IOException;
+
+    public abstract void flush() throws IOException;
+
+    private static final class Csv extends GymReportWriter {
+        private final Writer writer;
+
+        Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(GymReportRow row) throws IOException {
+            writer.write(String.valueOf(row.gymId()));
+            writer.write(',');
+            writeText(row.type());
+            writer.write(',');
+            writeText(row.address());
+            writer.write(',');
+            writeText(row.number());
+            for (long value : new long[] {row.members(), row.trainers(), row.maxTrainerLoad(),
+                    row.expiringMemberships(), row.visits()}) {
+                writer.write(',');
+                writer.write(Long.toString(value));
+            }
+            writer.write('\n');
+        }
+
+        // Кавычки только там, где без них сломается разбор
+        private void writeText(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class Json extends GymReportWriter {
+        private final JsonGenerator generator;
+
+        Json(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(GymReportRow row) throws IOException {
+            generator.writeObject(row);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.gym.management.gymmanager.repository;
 
 import com.gym.management.gymmanager.model.Gym;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface GymRepository extends JpaRepository<Gym, Long> {
+    @Query("SELECT g.id FROM Gym g")
+    List<Long> findAllIds();
 }
\ No newline at end of file
@@ -1,17 +1,69 @@
 package com.gym.management.gymmanager.repository;
 
+import com.gym.management.gymmanager.dto.PersonSummary;
 import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.stats.PersonLinks;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long> {
-    @Query("SELECT p FROM Person p WHERE p.gym.type = :gymType")
+    String SUMMARY_SELECT = "SELECT new com.gym.management.gymmanager.dto.PersonSummary("
+            + "p.id, p.name, p.phoneNumber, t.id, t.name, g.id, g.type) "
+            + "FROM Person p LEFT JOIN p.trainer t LEFT JOIN p.gym g ";
+
+    // Тренер и зал подтягиваются тем же запросом, без отдельного SELECT на каждую строку
+    @Override
+    @EntityGraph(attributePaths = {"trainer", "gym"})
+    List<Person> findAll();
+
+    @Query("SELECT p FROM Person p JOIN FETCH p.gym g LEFT JOIN FETCH p.trainer WHERE g.type = :gymType")
     List<Person> findByGymType(String gymType);
 
-    @Query(value = "SELECT * FROM person p JOIN gym g ON p.gym_id = g.id WHERE g.type = :gymType",
-            nativeQuery = true)
-    List<Person> findPersonsByGymTypeNative(String gymType);
-}
\ No newline at end of file
+    // То же в порядке ID — для /by-gym-type/ordered
+    @Query("SELECT p FROM Person p JOIN FETCH p.gym g LEFT JOIN FETCH p.trainer WHERE g.type = :gymType "
+            + "ORDER BY p.id")
+    List<Person> findByGymTypeOrderById(String gymType);
+
+    @Query(SUMMARY_SELECT + "ORDER BY p.id")
+    List<PersonSummary> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + "WHERE g.type = :gymType ORDER BY p.id")
+    List<PersonSummary> findSummariesByGymType(String gymType);
+
+    // Та же выборка страницами по курсору: индексы idx_gym_type и idx_person_gym_id (V2)
+    @Query(SUMMARY_SELECT + "WHERE g.type = :gymType AND p.id > :after ORDER BY p.id")
+    List<PersonSummary> findSummariesByGymTypeAfter(String gymType, Long after, Pageable pageable);
+
+    // Keyset-пагинация: страница клиентов с ID строго больше курсора
+    @Query("SELECT p FROM Person p LEFT JOIN FETCH p.trainer LEFT JOIN FETCH p.gym "
+            + "WHERE p.id > :after ORDER BY p.id")
+    List<Person> findPageAfter(Long after, Pageable pageable);
+
+    // Клиенты тренера страницами по курсору; условие по p.trainer.id идёт прямо по
+    // столбцу trainer_id и индексу (trainer_id, id), без соединения с trainer
+    @Query(SUMMARY_SELECT + "WHERE p.trainer.id = :trainerId AND p.id > :after ORDER BY p.id")
+    List<PersonSummary> findSummariesByTrainerAfter(Long trainerId, Long after, Pageable pageable);
+
+    // Зал и тренер клиента по внешним ключам, без соединений
+    @Query("SELECT new com.gym.management.gymmanager.stats.PersonLinks(p.gym.id, p.trainer.id) "
+            + "FROM Person p WHERE p.id = :id")
+    Optional<PersonLinks> findLinksById(Long id);
+
+    // Потоковое чтение всей таблицы курсором; вызывать только внутри транзакции
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Person p LEFT JOIN FETCH p.trainer LEFT JOIN FETCH p.gym ORDER BY p.id")
+    Stream<Person> streamAll();
+}
@@ -1,9 +1,31 @@
 package com.gym.management.gymmanager.repository;
 
+import com.gym.management.gymmanager.dto.TrainerSummary;
 import com.gym.management.gymmanager.model.Trainer;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface TrainerRepository extends JpaRepository<Trainer, Long> {
-}
\ No newline at end of file
+    @Query("SELECT t.id FROM Trainer t")
+    List<Long> findAllIds();
+
+    @EntityGraph(attributePaths = {"persons", "persons.gym"})
+    @Query("SELECT t FROM Trainer t WHERE t.id = :id")
+    Optional<Trainer> findWithPersonsById(Long id);
+
+    @EntityGraph(attributePaths = {"persons", "persons.gym"})
+    @Query("SELECT DISTINCT t FROM Trainer t")
+    List<Trainer> findAllWithPersons();
+
+    // Число клиентов считается тем же запросом через GROUP BY, коллекция persons не загружается
+    @Query("SELECT new com.gym.management.gymmanager.dto.TrainerSummary("
+            + "t.id, t.name, t.trainingType, t.gender, COUNT(p.id)) "
+            + "FROM Trainer t LEFT JOIN t.persons p "
+            + "GROUP BY t.id, t.name, t.trainingType, t.gender ORDER BY t.id")
+    List<TrainerSummary> findAllSummaries();
+}
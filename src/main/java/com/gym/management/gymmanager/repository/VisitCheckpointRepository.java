@@ -0,0 +1,18 @@
+package com.gym.management.gymmanager.repository;
+
+import com.gym.management.gymmanager.dto.VisitTotal;
+import com.gym.management.gymmanager.model.VisitCheckpoint;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VisitCheckpointRepository extends JpaRepository<VisitCheckpoint, Long> {
+    @Query("SELECT new com.gym.management.gymmanager.dto.VisitTotal(v.endpoint, v.gymId, SUM(v.visits)) "
+            + "FROM VisitCheckpoint v GROUP BY v.endpoint, v.gymId")
+    List<VisitTotal> sumByEndpointAndGym();
+
+    List<VisitCheckpoint> findByBucketStartGreaterThanEqual(Instant from);
+}
@@ -0,0 +1,244 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.attendance.AttendanceStore;
+import com.gym.management.gymmanager.dto.RetentionCohort;
+import com.gym.management.gymmanager.dto.TrainerVisits;
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.ingest.VisitBatch;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Аналитика посещаемости по колоночному хранилищу в памяти. При старте история visit
+ * читается одним снимком БД вместе с позицией журнала, дальше новые посещения приходят
+ * пачками от EventJournalService; пачки, уже вошедшие в снимок, отбрасываются.
+ * Тренер, тип зала и тип абонемента берутся на момент загрузки посещения.
+ */
+@Service
+public class AttendanceService {
+    private static final Logger logger = LoggerFactory.getLogger(AttendanceService.class);
+    private static final String HISTORY_SQL = "SELECT v.person_id, v.gym_id, v.visited_at, p.trainer_id, g.type, m.type "
+            + "FROM visit v LEFT JOIN person p ON p.id = v.person_id LEFT JOIN gym g ON g.id = v.gym_id "
+            + "LEFT JOIN membership m ON m.person_id = v.person_id";
+    private static final String PERSON_LINKS_SQL = "SELECT p.id, p.trainer_id, m.type FROM person p "
+            + "LEFT JOIN membership m ON m.person_id = p.id WHERE p.id = ANY (?)";
+    private static final String GYM_TYPES_SQL = "SELECT id, type FROM gym WHERE id = ANY (?)";
+    private static final int DEFAULT_TOP_LIMIT = 10;
+    private static final int MAX_TOP_LIMIT = 1000;
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int DEFAULT_RETENTION_MONTHS = 12;
+
+    private record PersonDimensions(int trainerId, String membershipType) {
+    }
+
+    private final ForkJoinPool pool;
+    private volatile AttendanceStore store;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final EventJournalService eventJournalService;
+    private final ZoneId zone;
+    private final int fetchSize;
+    private final Duration retryInterval;
+    private final Clock clock;
+    // Загрузка истории и живые пачки идут одним потоком строго по очереди
+    private final ScheduledExecutorService loader;
+
+    // Ниже — состояние потока loader
+    private long snapshotSequence = -1;
+    private volatile boolean loaded;
+
+    public AttendanceService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EventJournalService eventJournalService,
+                             @Value("${gymmanager.attendance.parallelism:0}") int parallelism,
+                             @Value("${gymmanager.attendance.zone:}") String zone,
+                             @Value("${gymmanager.attendance.fetch-size:10000}") int fetchSize,
+                             @Value("${gymmanager.attendance.retry-interval:30s}") Duration retryInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.eventJournalService = eventJournalService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.store = new AttendanceStore(pool);
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.clock = Clock.system(this.zone);
+        this.fetchSize = fetchSize;
+        this.retryInterval = retryInterval;
+        this.loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attendance-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        eventJournalService.addVisitListener(this::visitsApplied);
+        loader.execute(this::loadHistory);
+    }
+
+    @PreDestroy
+    void stop() {
+        loader.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void loadHistory() {
+        long started = System.nanoTime();
+        // Грузим в новое хранилище: после сбоя на середине повтор не задвоит строки
+        AttendanceStore loading = new AttendanceStore(pool);
+        try {
+            snapshotSequence = snapshotTransaction.execute(status -> {
+                long sequence = eventJournalService.committedSequence();
+                // Курсор на сервере: история не собирается в памяти драйвера целиком
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(HISTORY_SQL);
+                    ps.setFetchSize(fetchSize);
+                    return ps;
+                }, rs -> {
+                    long gymId = rs.getLong(2);
+                    long trainerId = rs.getLong(4);
+                    loading.append(rs.getLong(1), (int) gymId, localMinute(rs.getTimestamp(3).getTime()),
+                            (int) trainerId, rs.getString(5), rs.getString(6));
+                });
+                return sequence;
+            });
+            store = loading;
+            loaded = true;
+            logger.info("Loaded {} visits into attendance store in {} ms, journal position {}",
+                    loading.rows(), (System.nanoTime() - started) / 1_000_000, snapshotSequence);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load visit history, retrying in {}", retryInterval, e);
+            loader.schedule(this::loadHistory, retryInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Поток применения журнала: пачку копируем и отдаём loader, чтобы не задерживать запись в БД
+    private void visitsApplied(VisitBatch batch, long lastSequence) {
+        long[] personIds = new long[batch.size()];
+        long[] gymIds = new long[batch.size()];
+        long[] visitedAt = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            personIds[i] = batch.personId(i);
+            gymIds[i] = batch.gymId(i);
+            visitedAt[i] = batch.visitedAt(i);
+        }
+        loader.execute(() -> appendLive(personIds, gymIds, visitedAt, lastSequence));
+    }
+
+    private void appendLive(long[] personIds, long[] gymIds, long[] visitedAt, long lastSequence) {
+        // До загрузки истории пачка уже в БД и попадёт в снимок; после — отбрасываем вошедшие в него
+        if (!loaded || lastSequence <= snapshotSequence) {
+            return;
+        }
+        try {
+            Map<Long, PersonDimensions> persons = new HashMap<>();
+            jdbcTemplate.query(byIds(PERSON_LINKS_SQL, personIds), rs -> {
+                persons.put(rs.getLong(1), new PersonDimensions((int) rs.getLong(2), rs.getString(3)));
+            });
+            Map<Long, String> gymTypes = new HashMap<>();
+            jdbcTemplate.query(byIds(GYM_TYPES_SQL, gymIds), rs -> {
+                gymTypes.put(rs.getLong(1), rs.getString(2));
+            });
+            for (int i = 0; i < personIds.length; i++) {
+                PersonDimensions person = persons.get(personIds[i]);
+                store.append(personIds[i], (int) gymIds[i], localMinute(visitedAt[i]),
+                        person != null ? person.trainerId() : 0, gymTypes.get(gymIds[i]),
+                        person != null ? person.membershipType() : null);
+            }
+        } catch (RuntimeException e) {
+            // Без измерений посещения всё равно учитываем, иначе разойдутся итоги по залам
+            logger.warn("Failed to resolve dimensions for {} visits, storing them without trainer and types",
+                    personIds.length, e);
+            for (int i = 0; i < personIds.length; i++) {
+                store.append(personIds[i], (int) gymIds[i], localMinute(visitedAt[i]), 0, null, null);
+            }
+        }
+    }
+
+    public Map<Long, long[]> getHourlyByGym(LocalDate from, LocalDate to, String gymType) {
+        LocalDate end = to != null ? to : LocalDate.now(clock);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        validateRange(start, end);
+        return store.hourlyByGym(start, end, gymType);
+    }
+
+    public List<TrainerVisits> getTopTrainers(LocalDate from, LocalDate to, Integer limit) {
+        LocalDate end = to != null ? to : LocalDate.now(clock);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        validateRange(start, end);
+        int top = limit != null ? limit : DEFAULT_TOP_LIMIT;
+        if (top < 1 || top > MAX_TOP_LIMIT) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + MAX_TOP_LIMIT);
+        }
+        return store.topTrainers(start, end, top);
+    }
+
+    public List<RetentionCohort> getRetention(YearMonth from, Integer months) {
+        int window = months != null ? months : DEFAULT_RETENTION_MONTHS;
+        if (window < 1 || window > AttendanceStore.MAX_RETENTION_MONTHS) {
+            throw new ValidationException("Параметр months должен быть от 1 до " + AttendanceStore.MAX_RETENTION_MONTHS);
+        }
+        YearMonth start = from != null ? from : YearMonth.now(clock).minusMonths(window - 1);
+        return store.retention(start, window);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("loaded", loaded);
+        status.put("rows", store.rows());
+        status.put("chunks", store.chunks());
+        status.put("parallelism", pool.getParallelism());
+        status.put("zone", zone.getId());
+        return status;
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("Дата to не может быть раньше from");
+        }
+    }
+
+    // Минута с начала эпохи по местному времени клуба: час суток и дата считаются без часовых поясов
+    private int localMinute(long epochMillis) {
+        Instant instant = Instant.ofEpochMilli(epochMillis);
+        long localSeconds = instant.getEpochSecond() + zone.getRules().getOffset(instant).getTotalSeconds();
+        return Math.toIntExact(Math.floorDiv(localSeconds, 60));
+    }
+
+    // Один запрос на пачку: различные ID уходят массивом в = ANY (?)
+    private static PreparedStatementCreator byIds(String sql, long[] ids) {
+        Long[] distinct = Arrays.stream(ids).filter(id -> id != 0).distinct().boxed().toArray(Long[]::new);
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", distinct));
+            return ps;
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.checkin.MembershipValidityMap;
+import com.gym.management.gymmanager.model.Membership;
+import jakarta.annotation.PostConstruct;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Проверка абонемента на турникете без обращения к БД. Сроки действия абонементов
+ * лежат в MembershipValidityMap: заполняется при старте, дальше обновляется из
+ * MembershipService после коммита.
+ */
+@Service
+public class CheckInService {
+    private static final Logger logger = LoggerFactory.getLogger(CheckInService.class);
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM membership WHERE person_id IS NOT NULL";
+    private static final String LOAD_SQL = "SELECT person_id, start_date, end_date FROM membership "
+            + "WHERE person_id IS NOT NULL AND (end_date IS NULL OR end_date >= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Календарные даты клуба, как и в MembershipExpiryService
+    private final Clock clock = Clock.systemDefaultZone();
+    private volatile MembershipValidityMap validity = new MembershipValidityMap(0);
+    private volatile Today today;
+
+    // Текущий день и границы его в миллисекундах: пересчитывается раз в сутки, а не на каждом проходе
+    private record Today(int epochDay, long startMillis, long endMillis) {
+    }
+
+    public CheckInService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            long started = System.nanoTime();
+            Long expected = jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            MembershipValidityMap loaded = new MembershipValidityMap(expected != null ? expected.intValue() : 0);
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                loaded.put(rs.getLong(1), startDay(toLocalDate(rs.getDate(2))), endDay(toLocalDate(rs.getDate(3))));
+            }, Date.valueOf(LocalDate.now(clock)));
+            validity = loaded;
+            logger.info("Loaded {} memberships for check-in in {} ms",
+                    loaded.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load memberships for check-in, every scan will be rejected", e);
+        }
+    }
+
+    public boolean hasValidMembership(long personId) {
+        return personId > 0 && validity.isValid(personId, currentDay());
+    }
+
+    // У клиента не больше одного абонемента (person_id UNIQUE), так что запись по клиенту заменяется целиком
+    public void membershipSaved(Membership membership, Long previousPersonId) {
+        Long personId = membership.getPerson() != null ? membership.getPerson().getId() : null;
+        int startDay = startDay(membership.getStartDate());
+        int endDay = endDay(membership.getEndDate());
+        AfterCommit.run(() -> {
+            if (previousPersonId != null && !previousPersonId.equals(personId)) {
+                validity.remove(previousPersonId);
+            }
+            if (personId != null) {
+                validity.put(personId, startDay, endDay);
+            }
+        });
+    }
+
+    public void membershipRemoved(Long personId) {
+        if (personId != null) {
+            AfterCommit.run(() -> validity.remove(personId));
+        }
+    }
+
+    private int currentDay() {
+        Today current = today;
+        long now = clock.millis();
+        if (current == null || now < current.startMillis() || now >= current.endMillis()) {
+            ZonedDateTime midnight = LocalDate.now(clock).atStartOfDay(clock.getZone());
+            current = new Today((int) midnight.toLocalDate().toEpochDay(),
+                    midnight.toInstant().toEpochMilli(), midnight.plusDays(1).toInstant().toEpochMilli());
+            today = current;
+        }
+        return current.epochDay();
+    }
+
+    // Без даты начала или окончания срок с этой стороны не ограничен
+    private static int startDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : Integer.MIN_VALUE;
+    }
+
+    private static int endDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : Integer.MAX_VALUE;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
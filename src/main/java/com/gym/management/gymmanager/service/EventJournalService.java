@@ -0,0 +1,469 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.ingest.VisitBatch;
+import com.gym.management.gymmanager.journal.ChangeAction;
+import com.gym.management.gymmanager.journal.Journal;
+import com.gym.management.gymmanager.journal.JournalEntry;
+import com.gym.management.gymmanager.journal.JournalRecordType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ObjLongConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Журнал посещений и изменений клиентов, залов и тренеров. На пути запроса событие
+ * только дописывается в отображённый сегмент журнала; поток-сбросчик раз в
+ * flush-interval делает один fsync на все новые записи. Поток применения читает журнал
+ * с сохранённой позиции и пачками пишет посещения в visit, изменения — в audit_event,
+ * сдвигая позицию в journal_checkpoint той же транзакцией, так что после сбоя или
+ * рестарта ни одно событие не пропадёт и не задвоится. Применённые сегменты удаляются.
+ * Если БД отвергает пачку по самим данным, она применяется по одной записи через
+ * точки сохранения; отвергнутые записи логируются, считаются и пропускаются, чтобы одна
+ * плохая запись не остановила применение навсегда.
+ */
+@Service
+public class EventJournalService {
+    private static final Logger logger = LoggerFactory.getLogger(EventJournalService.class);
+    private static final String CHECKPOINT_NAME = "events";
+    private static final String LOAD_CHECKPOINT_SQL = "SELECT applied_sequence FROM journal_checkpoint WHERE name = ?";
+    private static final String SAVE_CHECKPOINT_SQL = "INSERT INTO journal_checkpoint (name, applied_sequence) "
+            + "VALUES (?, ?) ON CONFLICT (name) DO UPDATE SET applied_sequence = EXCLUDED.applied_sequence";
+    private static final String INSERT_VISIT_SQL = "INSERT INTO visit (person_id, gym_id, visited_at) VALUES (?, ?, ?)";
+    private static final String INSERT_CHANGE_SQL = "INSERT INTO audit_event "
+            + "(entity_type, action, entity_id, ref1, ref2, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Номер занят, но запись так и не появилась (поток упал посреди записи) — пропускаем
+    private static final long HOLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate nestedTransaction;
+    private final Path directory;
+    private final int segmentBytes;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long retryNanos;
+    private final long flushIntervalNanos;
+    private final Counter applied;
+    private final Counter skipped;
+    private final Counter failed;
+    private final List<ObjLongConsumer<VisitBatch>> visitListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Journal journal;
+    private volatile long appliedSequence = -1;
+    private volatile boolean running;
+    private Thread flusher;
+    private Thread applier;
+
+    // Ниже — состояние потока применения, другие потоки его не трогают
+    private boolean checkpointLoaded;
+    private final Set<YearMonth> knownPartitions = new HashSet<>();
+    private VisitBatch single;
+    private VisitBatch written;
+    private long partitionStartMillis = Long.MAX_VALUE;
+    private long partitionEndMillis = Long.MIN_VALUE;
+
+    public EventJournalService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${gymmanager.journal.directory:data/journal}") Path directory,
+                               @Value("${gymmanager.journal.segment-size:64MB}") DataSize segmentSize,
+                               @Value("${gymmanager.journal.batch-size:5000}") int batchSize,
+                               @Value("${gymmanager.journal.linger:50ms}") Duration linger,
+                               @Value("${gymmanager.journal.retry-interval:30s}") Duration retryInterval,
+                               @Value("${gymmanager.journal.flush-interval:10ms}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Точка сохранения внутри транзакции пачки: откат одной записи не трогает остальные
+        this.nestedTransaction = new TransactionTemplate(transactionManager);
+        this.nestedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.directory = directory;
+        this.segmentBytes = (int) segmentSize.toBytes();
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.retryNanos = retryInterval.toNanos();
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.applied = Counter.builder("gymmanager.journal.applied")
+                .description("События журнала, записанные в БД")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("gymmanager.journal.skipped")
+                .description("Повреждённые или недописанные записи журнала, пропущенные при применении")
+                .register(meterRegistry);
+        this.failed = Counter.builder("gymmanager.journal.failed")
+                .description("Записи журнала, отвергнутые БД и пропущенные при применении")
+                .register(meterRegistry);
+        Gauge.builder("gymmanager.journal.lag", this, EventJournalService::lag)
+                .description("События в журнале, ещё не записанные в БД")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        long checkpoint = -1;
+        try {
+            checkpoint = loadCheckpoint();
+            checkpointLoaded = true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load journal checkpoint, events will be applied once the database is back", e);
+        }
+        journal = Journal.open(directory, segmentBytes, checkpoint + 1);
+        appliedSequence = checkpoint;
+        logger.info("Opened event journal in {}: next sequence {}, applied up to {}",
+                directory, journal.nextSequence(), checkpoint);
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        applier = new Thread(this::applyLoop, "journal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    // Неприменённые события остаются в журнале и применятся после рестарта
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        LockSupport.unpark(applier);
+        flusher.join(STOP_TIMEOUT_MS);
+        applier.join(STOP_TIMEOUT_MS);
+        journal.close();
+    }
+
+    public boolean appendVisit(long personId, long gymId, long visitedAtMillis) {
+        try {
+            journal.append(JournalRecordType.VISIT, (short) 0, personId, gymId, 0L, visitedAtMillis);
+            return true;
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to append visit of person {} to the journal", personId, e);
+            return false;
+        }
+    }
+
+    // Изменение сущности попадает в журнал только после коммита; null в ref — связи нет
+    public void appendChange(JournalRecordType type, ChangeAction action, Long id, Long ref1, Long ref2) {
+        if (id == null) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        AfterCommit.run(() -> {
+            try {
+                journal.append(type, action.code(), id, ref1 != null ? ref1 : 0L, ref2 != null ? ref2 : 0L,
+                        timestamp);
+            } catch (UncheckedIOException e) {
+                logger.error("Failed to append {} {} of {} to the journal", type, action, id, e);
+            }
+        });
+    }
+
+    /**
+     * Слушатель получает каждую пачку посещений сразу после её коммита в visit вместе с
+     * номером последней записи журнала в пачке. Вызывается в потоке применения; пачка
+     * переиспользуется после возврата, поэтому данные нужно скопировать.
+     */
+    public void addVisitListener(ObjLongConsumer<VisitBatch> listener) {
+        visitListeners.add(listener);
+    }
+
+    // Позиция, до которой события уже в БД; внутри транзакции вызывающего — согласована с её снимком
+    public long committedSequence() {
+        return loadCheckpoint();
+    }
+
+    public long lag() {
+        Journal current = journal;
+        return current != null ? Math.max(0, current.nextSequence() - appliedSequence - 1) : 0;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(flushIntervalNanos);
+            try {
+                journal.flush();
+            } catch (RuntimeException e) {
+                logger.error("Failed to flush event journal", e);
+            }
+        }
+    }
+
+    private void applyLoop() {
+        VisitBatch visits = new VisitBatch(batchSize);
+        single = new VisitBatch(1);
+        written = new VisitBatch(batchSize);
+        List<Object[]> changes = new ArrayList<>();
+        JournalEntry entry = new JournalEntry();
+        long cursor = appliedSequence + 1;
+        long batchStarted = 0;
+        long pendingSince = 0;
+        long retryAt = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            if (now - retryAt < 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            if (!ensureCheckpoint()) {
+                retryAt = now + retryNanos;
+                continue;
+            }
+            // Позиция могла сдвинуться вперёд, если checkpoint загрузился только сейчас
+            if (cursor <= appliedSequence) {
+                cursor = appliedSequence + 1;
+            }
+            if (cursor == appliedSequence + 1) {
+                batchStarted = now;
+            }
+            long end = journal.nextSequence();
+            while (cursor < end && !visits.isFull() && changes.size() < batchSize) {
+                Journal.ReadStatus status = journal.read(cursor, entry);
+                if (status == Journal.ReadStatus.PENDING) {
+                    if (pendingSince == 0) {
+                        pendingSince = now;
+                    }
+                    if (now - pendingSince < HOLE_TIMEOUT_NANOS) {
+                        break;
+                    }
+                    logger.warn("Skipping journal record {} that was never completed", cursor);
+                    skipped.increment();
+                } else if (status == Journal.ReadStatus.CORRUPT) {
+                    logger.warn("Skipping corrupt journal record {}", cursor);
+                    skipped.increment();
+                } else if (status == Journal.ReadStatus.MISSING) {
+                    long nextSegment = (cursor / journal.recordsPerSegment() + 1) * journal.recordsPerSegment();
+                    logger.warn("Journal records {}..{} are missing, skipping", cursor, nextSegment - 1);
+                    cursor = Math.min(nextSegment, end) - 1;
+                } else if (entry.type() == JournalRecordType.VISIT) {
+                    visits.add(entry.a(), entry.b(), entry.timestampMillis());
+                } else if (entry.type() != null && entry.action() != null) {
+                    changes.add(new Object[] {entry.type().name(), entry.action().name(), entry.a(),
+                            entry.b() != 0 ? entry.b() : null, entry.c() != 0 ? entry.c() : null,
+                            new Timestamp(entry.timestampMillis())});
+                }
+                pendingSince = 0;
+                cursor++;
+            }
+
+            long pending = cursor - appliedSequence - 1;
+            boolean full = visits.isFull() || changes.size() >= batchSize;
+            if (pending == 0 || (!full && cursor == end && now - batchStarted < lingerNanos)) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                VisitBatch inserted = applyBatch(visits, changes, cursor - 1);
+                appliedSequence = cursor - 1;
+                journal.deleteBefore(cursor);
+                notifyVisitListeners(inserted, appliedSequence);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to apply journal records {}..{}, will retry", appliedSequence + 1, cursor - 1, e);
+                cursor = appliedSequence + 1;
+                retryAt = System.nanoTime() + retryNanos;
+            }
+            visits.clear();
+            changes.clear();
+        }
+        logger.info("Journal applier stopped at sequence {}", appliedSequence);
+    }
+
+    private void notifyVisitListeners(VisitBatch visits, long lastSequence) {
+        if (visits.isEmpty()) {
+            return;
+        }
+        for (ObjLongConsumer<VisitBatch> listener : visitListeners) {
+            try {
+                listener.accept(visits, lastSequence);
+            } catch (RuntimeException e) {
+                logger.error("Visit listener failed on records up to {}", lastSequence, e);
+            }
+        }
+    }
+
+    private boolean ensureCheckpoint() {
+        if (checkpointLoaded) {
+            return true;
+        }
+        try {
+            long checkpoint = loadCheckpoint();
+            appliedSequence = Math.max(appliedSequence, checkpoint);
+            checkpointLoaded = true;
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private long loadCheckpoint() {
+        List<Long> checkpoint = jdbcTemplate.queryForList(LOAD_CHECKPOINT_SQL, Long.class, CHECKPOINT_NAME);
+        return checkpoint.isEmpty() ? -1 : checkpoint.get(0);
+    }
+
+    // Возвращает посещения, которые действительно записаны в visit
+    private VisitBatch applyBatch(VisitBatch visits, List<Object[]> changes, long lastSequence) {
+        try {
+            apply(visits, changes, lastSequence);
+            applied.increment(visits.size() + changes.size());
+            return visits;
+        } catch (RuntimeException e) {
+            if (!isRejectedByData(e)) {
+                throw e;
+            }
+            logger.warn("Database rejected journal records up to {}, applying them one by one", lastSequence, e);
+            return applyEach(visits, changes, lastSequence);
+        }
+    }
+
+    private VisitBatch applyEach(VisitBatch visits, List<Object[]> changes, long lastSequence) {
+        written.clear();
+        int[] appliedChanges = new int[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < visits.size(); i++) {
+                    single.clear();
+                    single.add(visits.personId(i), visits.gymId(i), visits.visitedAt(i));
+                    String record = "visit of person " + visits.personId(i) + " at "
+                            + Instant.ofEpochMilli(visits.visitedAt(i));
+                    if (applyNested(() -> insertVisits(single), record)) {
+                        written.add(visits.personId(i), visits.gymId(i), visits.visitedAt(i));
+                    }
+                }
+                for (Object[] change : changes) {
+                    String record = change[0] + " " + change[1] + " of " + change[2];
+                    if (applyNested(() -> jdbcTemplate.update(INSERT_CHANGE_SQL, change), record)) {
+                        appliedChanges[0]++;
+                    }
+                }
+                jdbcTemplate.update(SAVE_CHECKPOINT_SQL, CHECKPOINT_NAME, lastSequence);
+            });
+        } catch (RuntimeException e) {
+            resetPartitionCache();
+            throw e;
+        }
+        applied.increment(written.size() + appliedChanges[0]);
+        return written;
+    }
+
+    private boolean applyNested(Runnable action, String record) {
+        try {
+            nestedTransaction.executeWithoutResult(status -> action.run());
+            return true;
+        } catch (RuntimeException e) {
+            if (!isRejectedByData(e)) {
+                throw e;
+            }
+            // Секция могла откатиться вместе с точкой сохранения
+            resetPartitionCache();
+            failed.increment();
+            logger.error("Dropping journal record rejected by the database: {}", record, e);
+            return false;
+        }
+    }
+
+    // Недоступность БД лечится повтором пачки, ошибка в данных — нет
+    private static boolean isRejectedByData(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private void apply(VisitBatch visits, List<Object[]> changes, long lastSequence) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!visits.isEmpty()) {
+                    insertVisits(visits);
+                }
+                if (!changes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, changes);
+                }
+                jdbcTemplate.update(SAVE_CHECKPOINT_SQL, CHECKPOINT_NAME, lastSequence);
+            });
+        } catch (RuntimeException e) {
+            // Секции могли откатиться вместе с транзакцией
+            resetPartitionCache();
+            throw e;
+        }
+    }
+
+    private void resetPartitionCache() {
+        knownPartitions.clear();
+        partitionStartMillis = Long.MAX_VALUE;
+        partitionEndMillis = Long.MIN_VALUE;
+    }
+
+    private void insertVisits(VisitBatch batch) {
+        ensurePartitions(batch);
+        jdbcTemplate.batchUpdate(INSERT_VISIT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, batch.personId(i));
+                if (batch.gymId(i) != 0) {
+                    ps.setLong(2, batch.gymId(i));
+                } else {
+                    ps.setNull(2, Types.BIGINT);
+                }
+                ps.setTimestamp(3, new Timestamp(batch.visitedAt(i)));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    // Секции visit помесячные; почти все события пачки попадают в последний проверенный месяц
+    private void ensurePartitions(VisitBatch batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            long visitedAt = batch.visitedAt(i);
+            if (visitedAt >= partitionStartMillis && visitedAt < partitionEndMillis) {
+                continue;
+            }
+            YearMonth month = YearMonth.from(Instant.ofEpochMilli(visitedAt).atZone(ZoneOffset.UTC));
+            if (knownPartitions.add(month)) {
+                createPartition(month);
+            }
+            partitionStartMillis = month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            partitionEndMillis = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        YearMonth next = month.plusMonths(1);
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS visit_p%04d%02d PARTITION OF visit "
+                        + "FOR VALUES FROM ('%s-01 00:00:00+00') TO ('%s-01 00:00:00+00')",
+                month.getYear(), month.getMonthValue(), month, next));
+    }
+}
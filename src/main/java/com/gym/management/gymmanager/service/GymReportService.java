@@ -0,0 +1,148 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.report.GymReport;
+import com.gym.management.gymmanager.report.GymReportRow;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Сетевой отчёт по всем залам. Залы делятся на порции по partition-size, порции
+ * считаются параллельно в reportTaskExecutor — каждая в своей read-only транзакции,
+ * то есть на одном соединении, тремя запросами с GROUP BY gym_id вместо цикла по
+ * репозиториям. Размер пула ограничен пулом Hikari, так что отчёт не выедает все
+ * соединения у API.
+ */
+@Service
+public class GymReportService {
+    private static final Logger logger = LoggerFactory.getLogger(GymReportService.class);
+    private static final String GYMS_SQL = "SELECT id, type, address, number FROM gym ORDER BY id";
+    private static final String MEMBERS_SQL = "SELECT gym_id, trainer_id, COUNT(*) FROM person "
+            + "WHERE gym_id = ANY (?) GROUP BY gym_id, trainer_id";
+    private static final String EXPIRING_SQL = "SELECT p.gym_id, COUNT(*) FROM membership m "
+            + "JOIN person p ON p.id = m.person_id "
+            + "WHERE p.gym_id = ANY (?) AND m.end_date BETWEEN ? AND ? GROUP BY p.gym_id";
+    private static final String VISITS_SQL = "SELECT gym_id, COUNT(*) FROM visit "
+            + "WHERE gym_id = ANY (?) AND visited_at >= ? AND visited_at < ? GROUP BY gym_id";
+    private static final int MAX_RANGE_DAYS = 366;
+
+    private record GymInfo(Long id, String type, String address, String number) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor reportTaskExecutor;
+    private final int partitionSize;
+    private final Clock clock = Clock.systemDefaultZone();
+
+    public GymReportService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("reportTaskExecutor") ThreadPoolTaskExecutor reportTaskExecutor,
+                            @Value("${gymmanager.reports.partition-size:20}") int partitionSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.reportTaskExecutor = reportTaskExecutor;
+        this.partitionSize = partitionSize;
+    }
+
+    /**
+     * Запускает расчёт и сразу возвращает отчёт, который можно писать клиенту по мере
+     * готовности порций. Период по умолчанию — текущий месяц; переполненная очередь
+     * пула — TaskRejectedException (429) ещё до начала ответа.
+     */
+    public GymReport startGymReport(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : YearMonth.now(clock).atDay(1);
+        LocalDate end = to != null ? to : YearMonth.from(start).atEndOfMonth();
+        if (end.isBefore(start)) {
+            throw new ValidationException("Дата to не может быть раньше from");
+        }
+        if (start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            throw new ValidationException("Период отчёта не может быть длиннее " + MAX_RANGE_DAYS + " дней");
+        }
+
+        List<GymInfo> gyms = jdbcTemplate.query(GYMS_SQL, (rs, rowNum) ->
+                new GymInfo(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+        List<Future<List<GymReportRow>>> partitions = new ArrayList<>();
+        try {
+            for (int i = 0; i < gyms.size(); i += partitionSize) {
+                List<GymInfo> partition = gyms.subList(i, Math.min(i + partitionSize, gyms.size()));
+                partitions.add(reportTaskExecutor.submit(() -> buildPartition(partition, start, end)));
+            }
+        } catch (TaskRejectedException e) {
+            partitions.forEach(partition -> partition.cancel(true));
+            throw e;
+        }
+        logger.info("Started gym report for {}..{}: {} gyms in {} partitions", start, end, gyms.size(),
+                partitions.size());
+        return new GymReport(partitions);
+    }
+
+    private List<GymReportRow> buildPartition(List<GymInfo> gyms, LocalDate from, LocalDate to) {
+        Long[] ids = gyms.stream().map(GymInfo::id).toArray(Long[]::new);
+        // Клиенты, число тренеров и максимум клиентов на одного тренера
+        Map<Long, long[]> members = new HashMap<>();
+        Map<Long, Long> expiring = new HashMap<>();
+        Map<Long, Long> visits = new HashMap<>();
+        ZoneId zone = clock.getZone();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            query(MEMBERS_SQL, ids, rs -> {
+                long[] counts = members.computeIfAbsent(rs.getLong(1), id -> new long[3]);
+                long count = rs.getLong(3);
+                counts[0] += count;
+                if (rs.getObject(2) != null) {
+                    counts[1]++;
+                    counts[2] = Math.max(counts[2], count);
+                }
+            });
+            query(EXPIRING_SQL, ids, rs -> {
+                expiring.put(rs.getLong(1), rs.getLong(2));
+            }, Date.valueOf(from), Date.valueOf(to));
+            query(VISITS_SQL, ids, rs -> {
+                visits.put(rs.getLong(1), rs.getLong(2));
+            }, Timestamp.from(from.atStartOfDay(zone).toInstant()),
+                    Timestamp.from(to.plusDays(1).atStartOfDay(zone).toInstant()));
+        });
+
+        List<GymReportRow> rows = new ArrayList<>(gyms.size());
+        for (GymInfo gym : gyms) {
+            long[] counts = members.getOrDefault(gym.id(), new long[3]);
+            rows.add(new GymReportRow(gym.id(), gym.type(), gym.address(), gym.number(), counts[0], counts[1],
+                    counts[2], expiring.getOrDefault(gym.id(), 0L), visits.getOrDefault(gym.id(), 0L)));
+        }
+        return rows;
+    }
+
+    // ID порции уходят одним массивом в = ANY (?), остальные параметры — следом
+    private void query(String sql, Long[] ids, RowCallbackHandler handler, Object... params) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 2, params[i]);
+            }
+            return ps;
+        }, handler);
+    }
+}
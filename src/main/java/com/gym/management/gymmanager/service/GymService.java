@@ -1,5 +1,11 @@
 package com.gym.management.gymmanager.service;
 
+import com.gym.management.gymmanager.cache.GymCache;
+import com.gym.management.gymmanager.cache.GymTypeQueryCache;
+import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.cache.TrainerCache;
+import com.gym.management.gymmanager.journal.ChangeAction;
+import com.gym.management.gymmanager.journal.JournalRecordType;
 import com.gym.management.gymmanager.model.Gym;
 import com.gym.management.gymmanager.repository.GymRepository;
 import java.util.List;
@@ -8,21 +14,43 @@ import org.springframework.stereotype.Service;
 
 @Service
 public class GymService {
-    private GymRepository gymRepository;
+    private final GymRepository gymRepository;
+    private final GymCache gymCache;
+    private final GymTypeQueryCache gymTypeQueryCache;
+    private final PersonCache personCache;
+    private final TrainerCache trainerCache;
+    private final StatsService statsService;
+    private final EventJournalService eventJournalService;
+
+    public GymService(GymRepository gymRepository, GymCache gymCache, GymTypeQueryCache gymTypeQueryCache,
+                      PersonCache personCache, TrainerCache trainerCache,
+                      StatsService statsService, EventJournalService eventJournalService) {
+        this.gymRepository = gymRepository;
+        this.gymCache = gymCache;
+        this.gymTypeQueryCache = gymTypeQueryCache;
+        this.personCache = personCache;
+        this.trainerCache = trainerCache;
+        this.statsService = statsService;
+        this.eventJournalService = eventJournalService;
+    }
 
     // 1. Сохранение зала
     public Gym saveGym(Gym gym) {
-        return gymRepository.save(gym);
+        Gym saved = gymRepository.save(gym);
+        gymCache.put(saved.getId(), saved);
+        statsService.gymSaved(saved.getId(), saved.getType());
+        eventJournalService.appendChange(JournalRecordType.GYM, ChangeAction.CREATE, saved.getId(), null, null);
+        return saved;
     }
 
-    // 2. Получение всех залов
+    // 2. Получение всех залов (снимок списка из кеша)
     public List<Gym> getAllGyms() {
-        return gymRepository.findAll();
+        return gymCache.getAll(gymRepository::findAll);
     }
 
     // 3. Получение зала по ID
     public Gym getGymById(Long id) {
-        return gymRepository.findById(id).orElse(null);
+        return gymCache.get(id, gymRepository::findById).orElse(null);
     }
 
     // 4. Обновление зала
@@ -30,10 +58,19 @@ public class GymService {
         Optional<Gym> optionalGym = gymRepository.findById(id);
         if (optionalGym.isPresent()) {
             Gym gym = optionalGym.get();
+            String previousType = gym.getType();
             gym.setType(gymDetails.getType());
             gym.setNumber(gymDetails.getNumber());
             gym.setAddress(gymDetails.getAddress());
-            return gymRepository.save(gym);
+            Gym updated = gymRepository.save(gym);
+            gymCache.put(id, updated);
+            // В страницах по типу зала лежит тип зала у каждого клиента
+            gymTypeQueryCache.invalidate(previousType);
+            gymTypeQueryCache.invalidate(updated.getType());
+            evictGymHolders();
+            statsService.gymSaved(id, updated.getType());
+            eventJournalService.appendChange(JournalRecordType.GYM, ChangeAction.UPDATE, id, null, null);
+            return updated;
         }
         return null;
     }
@@ -42,8 +79,19 @@ public class GymService {
     public boolean deleteGym(Long id) {
         if (gymRepository.existsById(id)) {
             gymRepository.deleteById(id);
+            gymCache.evict(id);
+            evictGymHolders();
+            statsService.gymRemoved(id);
+            eventJournalService.appendChange(JournalRecordType.GYM, ChangeAction.DELETE, id, null, null);
             return true;
         }
         return false;
     }
+
+    // Клиенты в PersonCache и тренеры в TrainerCache (через persons.gym) держат копию зала.
+    // Обратного индекса от зала к ним нет, а залы меняются редко, поэтому кеши сбрасываются целиком.
+    private void evictGymHolders() {
+        personCache.clear();
+        trainerCache.clear();
+    }
 }
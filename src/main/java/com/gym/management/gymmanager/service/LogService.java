@@ -1,98 +1,177 @@
 package com.gym.management.gymmanager.service;
 
 import com.gym.management.gymmanager.logging.AsyncLogTask;
+import com.gym.management.gymmanager.logging.LogQuery;
+import com.gym.management.gymmanager.logging.LogSearchEngine;
+import com.gym.management.gymmanager.task.TaskRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
-import java.io.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Service
 public class LogService {
     private static final Logger logger = LoggerFactory.getLogger(LogService.class);
-    private static final String LOG_DIRECTORY = "logs/";
+    private static final String EXPORT_PREFIX = "filtered-log-";
+
+    private final LogSearchEngine logSearchEngine;
+    private final TaskRegistry<AsyncLogTask> logTaskRegistry = new TaskRegistry<>(true);
+    private final ThreadPoolTaskExecutor logTaskExecutor;
+    private final Path exportDirectory;
+    private final Duration taskTtl;
+
+    public LogService(LogSearchEngine logSearchEngine,
+                      @Qualifier("logTaskExecutor") ThreadPoolTaskExecutor logTaskExecutor,
+                      @Value("${gymmanager.logs.export-directory:${java.io.tmpdir}/gymmanager-logs}") String exportDirectory,
+                      @Value("${gymmanager.logs.task-ttl:30m}") Duration taskTtl) {
+        this.logSearchEngine = logSearchEngine;
+        this.logTaskExecutor = logTaskExecutor;
+        this.exportDirectory = Paths.get(exportDirectory);
+        this.taskTtl = taskTtl;
+    }
+
+    // Выгрузки прошлых запусков уже никому не принадлежат: задачи жили только в памяти.
+    // Заодно убираем то, что старые версии складывали прямо в каталог логов.
+    @PostConstruct
+    void cleanUpStaleExports() throws IOException {
+        Files.createDirectories(exportDirectory);
+        deleteExports(exportDirectory);
+        if (Files.isDirectory(logSearchEngine.getDirectory())) {
+            deleteExports(logSearchEngine.getDirectory());
+        }
+    }
 
-    private final Map<String, AsyncLogTask> taskMap = new ConcurrentHashMap<>();
-    private final LogService self;
+    private static void deleteExports(Path directory) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, EXPORT_PREFIX + "*.log")) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
 
-    public LogService(@Lazy LogService self) {
-        this.self = self;
+    // Синхронная выгрузка прямо в ответ, без промежуточного файла
+    public long writeLogs(LogQuery query, WritableByteChannel out) throws IOException {
+        long started = System.nanoTime();
+        long bytes = logSearchEngine.extract(query, out);
+        logger.debug("Streamed {} bytes of logs for {} in {} ms", bytes, query,
+                (System.nanoTime() - started) / 1_000_000);
+        return bytes;
     }
 
-    public String startAsyncLogCreation(String date) {
-        String taskId = UUID.randomUUID().toString();
-        AsyncLogTask task = new AsyncLogTask();
-        task.setStatus(AsyncLogTask.Status.IN_PROGRESS);
-        taskMap.put(taskId, task);
-        self.createLogFileAsync(taskId, date);
+    // Задача ставится в ограниченный пул; при переполнении TaskRejectedException уходит
+    // клиенту как 429, а задача не остаётся висеть в реестре
+    public String startAsyncLogCreation(LogQuery query) {
+        AsyncLogTask task = new AsyncLogTask(query);
+        String taskId = logTaskRegistry.register(task);
+        try {
+            task.setFuture(logTaskExecutor.submit(() -> createLogFile(taskId, task)));
+        } catch (TaskRejectedException e) {
+            logTaskRegistry.remove(taskId);
+            logger.warn("Log export rejected, executor is saturated (active={}, queued={})",
+                    logTaskExecutor.getActiveCount(), logTaskExecutor.getQueueSize());
+            throw e;
+        }
         return taskId;
     }
 
-    @Async
-    public void createLogFileAsync(String taskId, String date) {
-        AsyncLogTask task = taskMap.get(taskId);
+    private void createLogFile(String taskId, AsyncLogTask task) {
+        if (!task.transition(AsyncLogTask.Status.PENDING, AsyncLogTask.Status.IN_PROGRESS)) {
+            return;
+        }
 
+        Path filteredFile = null;
         try {
-            Thread.sleep(20000);
-
-            File logDirectory = new File(LOG_DIRECTORY);
-            File[] logFiles = logDirectory.listFiles((dir, name) ->
-                    name.startsWith("application-") && name.endsWith(".log"));
+            filteredFile = Files.createTempFile(exportDirectory, EXPORT_PREFIX, ".log");
 
-            if (logFiles == null || logFiles.length == 0) {
-                task.setStatus(AsyncLogTask.Status.FAILED);
-                logger.warn("No log files found in the directory: {}", logDirectory.getAbsolutePath());
-                return;
+            long bytes;
+            try (FileChannel out = FileChannel.open(filteredFile, StandardOpenOption.WRITE)) {
+                bytes = logSearchEngine.extract(task.getQuery(), out);
             }
-
-            File.createTempFile("filtered-log-", ".log", new File(LOG_DIRECTORY));
-            logger.info("Temporary filtered log file created.");
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(filteredFile))) {
-                boolean foundLines = false;
-
-                for (File logFile : logFiles) {
-                    logger.info("Processing log file: {}", logFile.getName());
-
-                    try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            if (line.contains(date)) {
-                                writer.write(line);
-                                writer.newLine();
-                                foundLines = true;
-                            }
-                        }
-                    }
-                }
-
-                if (!foundLines) {
-                    logger.info("No matching lines found for the specified date.");
-                }
-
-                task.setFilePath(filteredFile.getAbsolutePath());
-                task.setStatus(AsyncLogTask.Status.COMPLETED);
+            task.setBytes(bytes);
+            task.setFilePath(filteredFile.toAbsolutePath().toString());
+            if (task.transition(AsyncLogTask.Status.IN_PROGRESS, AsyncLogTask.Status.COMPLETED)) {
+                logger.info("Log task {} extracted {} bytes for {} in {} ms (queued {} ms)", taskId, bytes,
+                        task.getQuery(), task.getRunTime().toMillis(), task.getQueueTime().toMillis());
+                return;
             }
-        } catch (InterruptedException e) {
-            logger.warn("Log file generation interrupted", e);
+        } catch (ClosedByInterruptException e) {
+            logger.info("Log task {} interrupted", taskId);
+            task.transition(AsyncLogTask.Status.IN_PROGRESS, AsyncLogTask.Status.CANCELLED);
             Thread.currentThread().interrupt();
-            task.setStatus(AsyncLogTask.Status.FAILED);
         } catch (Exception e) {
             logger.error("Exception during log file generation", e);
-            task.setStatus(AsyncLogTask.Status.FAILED);
+            task.transition(AsyncLogTask.Status.IN_PROGRESS, AsyncLogTask.Status.FAILED);
         }
+        // Сюда попадаем при отмене или ошибке: недописанный файл не нужен
+        deleteQuietly(filteredFile);
+        task.setFilePath(null);
+    }
+
+    public boolean cancelTask(String taskId) {
+        return logTaskRegistry.cancel(taskId);
+    }
+
+    // Завершённые задачи и их файлы живут taskTtl, дальше удаляются
+    @Scheduled(fixedDelayString = "${gymmanager.logs.cleanup-interval:60000}")
+    public void evictExpiredTasks() {
+        for (AsyncLogTask task : logTaskRegistry.evictFinishedBefore(Instant.now().minus(taskTtl))) {
+            if (task.getFilePath() != null) {
+                deleteQuietly(Paths.get(task.getFilePath()));
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete log export {}", file, e);
+        }
+    }
+
+    public Map<String, Object> getExecutorStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("poolSize", logTaskExecutor.getPoolSize());
+        stats.put("maxPoolSize", logTaskExecutor.getMaxPoolSize());
+        stats.put("activeThreads", logTaskExecutor.getActiveCount());
+        stats.put("queueSize", logTaskExecutor.getQueueSize());
+        stats.put("queueCapacity", logTaskExecutor.getQueueCapacity());
+        ThreadPoolExecutor pool = logTaskExecutor.getThreadPoolExecutor();
+        stats.put("completedTasks", pool.getCompletedTaskCount());
+        stats.put("tasks", logTaskRegistry.countByStatus());
+        return stats;
     }
 
     public AsyncLogTask getTaskStatus(String taskId) {
-        return taskMap.get(taskId);
+        return logTaskRegistry.get(taskId);
     }
 
     public File getLogFileByTaskId(String taskId) {
-        AsyncLogTask task = taskMap.get(taskId);
+        AsyncLogTask task = logTaskRegistry.get(taskId);
         if (task == null) {
             return null;
         }
@@ -0,0 +1,133 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.expiry.ExpiringMembership;
+import com.gym.management.gymmanager.expiry.MembershipExpiryEvent;
+import com.gym.management.gymmanager.expiry.MembershipExpiryIndex;
+import com.gym.management.gymmanager.model.Membership;
+import jakarta.annotation.PostConstruct;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Индекс действующих абонементов по дате окончания. Заполняется из БД один раз при
+ * старте, дальше обновляется из MembershipService. Раз в сутки истёкшие абонементы
+ * вынимаются из индекса и публикуются порциями как MembershipExpiryEvent, вместе с
+ * теми, что истекают через notice-days.
+ */
+@Service
+public class MembershipExpiryService {
+    private static final Logger logger = LoggerFactory.getLogger(MembershipExpiryService.class);
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+    private static final int DEFAULT_RANGE_DAYS = 7;
+    private static final String LOAD_SQL =
+            "SELECT id, person_id, end_date FROM membership WHERE end_date >= ?";
+
+    private final MembershipExpiryIndex index = new MembershipExpiryIndex();
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int noticeDays;
+    private final int batchSize;
+    // Даты абонементов — календарные даты клуба, поэтому часовой пояс сервера
+    private final Clock clock = Clock.systemDefaultZone();
+
+    public MembershipExpiryService(JdbcTemplate jdbcTemplate,
+                                   ApplicationEventPublisher eventPublisher,
+                                   @Value("${gymmanager.memberships.expiry.notice-days:7}") int noticeDays,
+                                   @Value("${gymmanager.memberships.expiry.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.noticeDays = noticeDays;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            long started = System.nanoTime();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                // person_id NULL читается как 0 — абонемент без клиента
+                index.put(rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate());
+            }, Date.valueOf(LocalDate.now(clock)));
+            logger.info("Loaded {} active memberships into expiry index in {} ms",
+                    index.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to load memberships into expiry index, starting empty", e);
+        }
+    }
+
+    public void membershipSaved(Membership membership) {
+        Long id = membership.getId();
+        long personId = membership.getPerson() != null && membership.getPerson().getId() != null
+                ? membership.getPerson().getId() : 0L;
+        LocalDate endDate = membership.getEndDate();
+        AfterCommit.run(() -> {
+            // Без даты окончания или уже истёкший абонемент в индекс не попадает
+            if (endDate == null || endDate.isBefore(LocalDate.now(clock))) {
+                index.remove(id);
+            } else {
+                index.put(id, personId, endDate);
+            }
+        });
+    }
+
+    public void membershipRemoved(Long id) {
+        AfterCommit.run(() -> index.remove(id));
+    }
+
+    public List<ExpiringMembership> getExpiring(LocalDate from, LocalDate to, Integer limit) {
+        LocalDate start = from != null ? from : LocalDate.now(clock);
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_RANGE_DAYS);
+        int pageLimit = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageLimit < 1 || pageLimit > MAX_LIMIT) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + MAX_LIMIT);
+        }
+        checkRange(start, end);
+        return index.find(start, end, pageLimit);
+    }
+
+    public int countExpiring(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now(clock);
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_RANGE_DAYS);
+        checkRange(start, end);
+        return index.count(start, end);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ValidationException("Дата to не может быть раньше from");
+        }
+    }
+
+    @Scheduled(cron = "${gymmanager.memberships.expiry.cron:0 5 0 * * *}")
+    public void publishExpiries() {
+        LocalDate today = LocalDate.now(clock);
+        int expired = 0;
+        for (Map.Entry<LocalDate, List<ExpiringMembership>> day : index.drainBefore(today).entrySet()) {
+            expired += publish(MembershipExpiryEvent.Kind.EXPIRED, day.getKey(), day.getValue());
+        }
+        LocalDate noticeDay = today.plusDays(noticeDays);
+        int upcoming = publish(MembershipExpiryEvent.Kind.UPCOMING, noticeDay,
+                index.find(noticeDay, noticeDay, Integer.MAX_VALUE));
+        logger.info("Published {} expired memberships and {} expiring on {}", expired, upcoming, noticeDay);
+    }
+
+    private int publish(MembershipExpiryEvent.Kind kind, LocalDate endDate, List<ExpiringMembership> memberships) {
+        for (int from = 0; from < memberships.size(); from += batchSize) {
+            List<ExpiringMembership> batch = memberships.subList(from, Math.min(from + batchSize, memberships.size()));
+            eventPublisher.publishEvent(new MembershipExpiryEvent(kind, endDate, List.copyOf(batch)));
+        }
+        return memberships.size();
+    }
+}
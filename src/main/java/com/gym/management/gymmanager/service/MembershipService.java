@@ -1,19 +1,41 @@
 package com.gym.management.gymmanager.service;
 
 import com.gym.management.gymmanager.model.Membership;
+import com.gym.management.gymmanager.model.Person;
 import com.gym.management.gymmanager.repository.MembershipRepository;
+import java.util.Optional;
 import org.springframework.stereotype.Service;
 
 @Service
 public class MembershipService {
     private final MembershipRepository membershipRepository;
+    private final StatsService statsService;
+    private final MembershipExpiryService expiryService;
+    private final CheckInService checkInService;
 
-    public MembershipService(MembershipRepository membershipRepository) {
+    public MembershipService(MembershipRepository membershipRepository, StatsService statsService,
+                             MembershipExpiryService expiryService, CheckInService checkInService) {
         this.membershipRepository = membershipRepository;
+        this.statsService = statsService;
+        this.expiryService = expiryService;
+        this.checkInService = checkInService;
     }
 
     public Membership saveMembership(Membership membership) {
-        return membershipRepository.save(membership);
+        // Пересохранение существующего абонемента может сменить его тип и клиента
+        Optional<Membership> previous = membership.getId() != null
+                ? membershipRepository.findById(membership.getId())
+                : Optional.empty();
+        String previousType = previous.map(Membership::getType).orElse(null);
+        Long previousPersonId = previous.map(Membership::getPerson).map(Person::getId).orElse(null);
+        Membership saved = membershipRepository.save(membership);
+        if (previous.isPresent()) {
+            statsService.membershipRemoved(previousType);
+        }
+        statsService.membershipAdded(saved.getType());
+        expiryService.membershipSaved(saved);
+        checkInService.membershipSaved(saved, previousPersonId);
+        return saved;
     }
 
     public Membership getMembershipById(Long id) {
@@ -21,8 +43,13 @@ public class MembershipService {
     }
 
     public boolean deleteMembership(Long id) {
-        if (membershipRepository.existsById(id)) {
+        Optional<Membership> membership = membershipRepository.findById(id);
+        if (membership.isPresent()) {
             membershipRepository.deleteById(id);
+            statsService.membershipRemoved(membership.get().getType());
+            expiryService.membershipRemoved(id);
+            Person person = membership.get().getPerson();
+            checkInService.membershipRemoved(person != null ? person.getId() : null);
             return true;
         }
         return false;
@@ -0,0 +1,100 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.cache.GymTypeQueryCache;
+import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.cache.TrainerCache;
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.stereotype.Service;
+
+// Загрузка очень больших CSV через PostgreSQL COPY: строки потоком попадают во временную
+// таблицу, а затем одним INSERT ... SELECT переносятся в person с ID из person_seq.
+// Ожидаемые колонки CSV (с заголовком): name,phone_number,trainer_id,gym_id
+@Service
+public class PersonCopyLoader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersonCopyLoader.class);
+
+    private static final String CREATE_STAGING_SQL = "CREATE TEMP TABLE person_import ("
+            + "name varchar(100), phone_number varchar(255), trainer_id bigint, gym_id bigint) ON COMMIT DROP";
+    private static final String COPY_SQL =
+            "COPY person_import (name, phone_number, trainer_id, gym_id) FROM STDIN WITH (FORMAT csv, HEADER true)";
+    private static final String INSERT_SQL = "INSERT INTO person (id, name, phone_number, trainer_id, gym_id) "
+            + "SELECT nextval('person_seq'), btrim(name), phone_number, trainer_id, gym_id FROM person_import "
+            + "WHERE name IS NOT NULL AND btrim(name) <> ''";
+
+    private final DataSource dataSource;
+    private final StatsService statsService;
+    private final PersonCache personCache;
+    private final TrainerCache trainerCache;
+    private final GymTypeQueryCache gymTypeQueryCache;
+
+    public PersonCopyLoader(DataSource dataSource, StatsService statsService, PersonCache personCache,
+                            TrainerCache trainerCache, GymTypeQueryCache gymTypeQueryCache) {
+        this.dataSource = dataSource;
+        this.statsService = statsService;
+        this.personCache = personCache;
+        this.trainerCache = trainerCache;
+        this.gymTypeQueryCache = gymTypeQueryCache;
+    }
+
+    public Map<String, Long> load(InputStream csv) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                long copied = copyManager.copyIn(COPY_SQL, csv);
+                long inserted = statement.executeUpdate(INSERT_SQL);
+                connection.commit();
+                // Строки прошли мимо PersonService — счётчики статистики пересчитываются по БД,
+                // а кеши с клиентами (списки у тренеров, страницы по типу зала) сбрасываются целиком
+                statsService.requestReconcile();
+                personCache.clear();
+                trainerCache.clear();
+                gymTypeQueryCache.clear();
+
+                LOGGER.info("COPY import finished: {} rows read, {} inserted", copied, inserted);
+                Map<String, Long> result = new LinkedHashMap<>();
+                result.put("copied", copied);
+                result.put("inserted", inserted);
+                result.put("skipped", copied - inserted);
+                return result;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw translate(e);
+            } catch (IOException e) {
+                // Поток загрузки читается с диска сервера — это не ошибка в содержимом файла
+                connection.rollback();
+                throw new UncheckedIOException(e);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw translate(e);
+        }
+    }
+
+    // Классы SQLState 22 (формат CSV, типы и длины значений) и 23 (несуществующий тренер
+    // или зал) означают ошибку в самом файле — это 400. Остальное — сбой БД или соединения, 500.
+    private RuntimeException translate(SQLException e) {
+        String sqlState = e.getSQLState();
+        if (sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"))) {
+            return new ValidationException("Ошибка COPY-импорта клиентов: " + e.getMessage(), e);
+        }
+        return new UncategorizedSQLException("COPY import", COPY_SQL, e);
+    }
+}
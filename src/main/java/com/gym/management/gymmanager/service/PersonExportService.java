@@ -0,0 +1,210 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.export.ExportFormat;
+import com.gym.management.gymmanager.export.ExportTask;
+import com.gym.management.gymmanager.export.PersonExportRow;
+import com.gym.management.gymmanager.export.PersonExportWriter;
+import com.gym.management.gymmanager.task.TaskRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Полная выгрузка клиентов с тренером, залом и абонементом для партнёров. Строки идут
+ * из серверного курсора порциями по fetch-size и сразу кодируются в файл, так что
+ * память не зависит от числа клиентов. Готовый файл отдаётся через
+ * {@link FileChannel#transferTo} и живёт task-ttl после завершения задачи.
+ */
+@Service
+public class PersonExportService {
+    private static final Logger logger = LoggerFactory.getLogger(PersonExportService.class);
+    private static final String EXPORT_PREFIX = "person-export-";
+    private static final String EXPORT_SQL = "SELECT p.id, p.name, p.phone_number, p.trainer_id, t.name, "
+            + "p.gym_id, g.type, g.address, m.type, m.start_date, m.end_date FROM person p "
+            + "LEFT JOIN trainer t ON t.id = p.trainer_id LEFT JOIN gym g ON g.id = p.gym_id "
+            + "LEFT JOIN membership m ON m.person_id = p.id ORDER BY p.id";
+    // Как часто поток выгрузки проверяет, не отменили ли задачу
+    private static final int CANCEL_CHECK_ROWS = 1024;
+
+    private final TaskRegistry<ExportTask> tasks = new TaskRegistry<>(false);
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolTaskExecutor exportTaskExecutor;
+    private final Path exportDirectory;
+    private final int fetchSize;
+    private final int rowGroupSize;
+    private final Duration taskTtl;
+
+    public PersonExportService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier("exportTaskExecutor") ThreadPoolTaskExecutor exportTaskExecutor,
+                               @Value("${gymmanager.exports.directory:${java.io.tmpdir}/gymmanager-exports}") String exportDirectory,
+                               @Value("${gymmanager.exports.fetch-size:5000}") int fetchSize,
+                               @Value("${gymmanager.exports.row-group-size:65536}") int rowGroupSize,
+                               @Value("${gymmanager.exports.task-ttl:1h}") Duration taskTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Серверный курсор PostgreSQL работает только внутри транзакции
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exportTaskExecutor = exportTaskExecutor;
+        this.exportDirectory = Paths.get(exportDirectory);
+        this.fetchSize = fetchSize;
+        this.rowGroupSize = rowGroupSize;
+        this.taskTtl = taskTtl;
+    }
+
+    // Задачи живут только в памяти, файлы прошлых запусков уже никому не принадлежат
+    @PostConstruct
+    void cleanUpStaleExports() throws IOException {
+        Files.createDirectories(exportDirectory);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(exportDirectory, EXPORT_PREFIX + "*")) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // При переполненной очереди TaskRejectedException уходит клиенту как 429
+    public String startExport(ExportFormat format) {
+        ExportTask task = new ExportTask(format);
+        String taskId = tasks.register(task);
+        try {
+            task.setFuture(exportTaskExecutor.submit(() -> export(taskId, task)));
+        } catch (TaskRejectedException e) {
+            tasks.remove(taskId);
+            logger.warn("Person export rejected, executor is saturated (active={}, queued={})",
+                    exportTaskExecutor.getActiveCount(), exportTaskExecutor.getQueueSize());
+            throw e;
+        }
+        return taskId;
+    }
+
+    private void export(String taskId, ExportTask task) {
+        if (!task.transition(ExportTask.Status.PENDING, ExportTask.Status.IN_PROGRESS)) {
+            return;
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile(exportDirectory, EXPORT_PREFIX, "." + task.getFormat().extension());
+            long rows;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                try (PersonExportWriter writer = PersonExportWriter.open(task.getFormat(), channel, rowGroupSize)) {
+                    rows = writeRows(task, writer);
+                }
+                task.setBytes(channel.size());
+            }
+            task.setRows(rows);
+            task.setFilePath(file.toAbsolutePath().toString());
+            if (task.transition(ExportTask.Status.IN_PROGRESS, ExportTask.Status.COMPLETED)) {
+                logger.info("Export {} wrote {} persons ({} bytes, {}) in {} ms", taskId, rows, task.getBytes(),
+                        task.getFormat(), task.getRunTime().toMillis());
+                return;
+            }
+        } catch (CancellationException e) {
+            logger.info("Export {} cancelled", taskId);
+        } catch (Exception e) {
+            logger.error("Person export {} failed", taskId, e);
+            task.transition(ExportTask.Status.IN_PROGRESS, ExportTask.Status.FAILED);
+        }
+        // Сюда попадаем при отмене или ошибке: недописанный файл не нужен
+        deleteQuietly(file);
+        task.setFilePath(null);
+    }
+
+    private long writeRows(ExportTask task, PersonExportWriter writer) {
+        long[] rows = new long[1];
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(EXPORT_SQL);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, rs -> {
+            if (++rows[0] % CANCEL_CHECK_ROWS == 0 && task.getStatus() == ExportTask.Status.CANCELLED) {
+                throw new CancellationException();
+            }
+            try {
+                writer.write(toRow(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        return rows[0];
+    }
+
+    private static PersonExportRow toRow(ResultSet rs) throws SQLException {
+        return new PersonExportRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getObject(4, Long.class), rs.getString(5), rs.getObject(6, Long.class),
+                rs.getString(7), rs.getString(8), rs.getString(9), toLocalDate(rs.getDate(10)),
+                toLocalDate(rs.getDate(11)));
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
+    // Файл уходит в ответ по частям через transferTo, без чтения в кучу
+    public long transferTo(ExportTask task, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(task.getFilePath()), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+
+    public ExportTask getTask(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    // false, если задача уже завершилась
+    public boolean cancelTask(String taskId) {
+        return tasks.cancel(taskId);
+    }
+
+    @Scheduled(fixedDelayString = "${gymmanager.exports.cleanup-interval:60000}")
+    public void evictExpiredTasks() {
+        for (ExportTask task : tasks.evictFinishedBefore(Instant.now().minus(taskTtl))) {
+            if (task.getFilePath() != null) {
+                deleteQuietly(Paths.get(task.getFilePath()));
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete person export {}", file, e);
+        }
+    }
+}
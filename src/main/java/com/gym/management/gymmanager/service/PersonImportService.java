@@ -0,0 +1,191 @@
+package com.gym.management.gymmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.importing.PersonImportFormat;
+import com.gym.management.gymmanager.importing.PersonImportParser;
+import com.gym.management.gymmanager.importing.PersonImportRow;
+import com.gym.management.gymmanager.importing.PersonImportTask;
+import com.gym.management.gymmanager.model.Gym;
+import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.model.Trainer;
+import com.gym.management.gymmanager.repository.GymRepository;
+import com.gym.management.gymmanager.repository.TrainerRepository;
+import com.gym.management.gymmanager.task.TaskRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+@Service
+public class PersonImportService {
+    private static final Logger logger = LoggerFactory.getLogger(PersonImportService.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final TaskRegistry<PersonImportTask> tasks = new TaskRegistry<>(false);
+    private final PersonService personService;
+    private final GymRepository gymRepository;
+    private final TrainerRepository trainerRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor importTaskExecutor;
+    private final Duration taskTtl;
+
+    public PersonImportService(PersonService personService,
+                               GymRepository gymRepository,
+                               TrainerRepository trainerRepository,
+                               ObjectMapper objectMapper,
+                               @Qualifier("importTaskExecutor") TaskExecutor importTaskExecutor,
+                               @Value("${gymmanager.import.task-ttl:1h}") Duration taskTtl) {
+        this.personService = personService;
+        this.gymRepository = gymRepository;
+        this.trainerRepository = trainerRepository;
+        this.objectMapper = objectMapper;
+        this.importTaskExecutor = importTaskExecutor;
+        this.taskTtl = taskTtl;
+    }
+
+    // Загрузка копируется во временный файл: multipart-данные живут только до конца запроса,
+    // а разбор идёт в фоне уже после ответа клиенту
+    public String startImport(MultipartFile file, String format) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("Файл импорта пустой");
+        }
+        PersonImportFormat importFormat = PersonImportFormat.resolve(format, file.getOriginalFilename());
+
+        Path upload;
+        try {
+            upload = Files.createTempFile("person-import-", "." + importFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(upload);
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось сохранить файл импорта", e);
+        }
+
+        PersonImportTask task = new PersonImportTask(file.getOriginalFilename(), importFormat);
+        String taskId = tasks.register(task);
+        try {
+            importTaskExecutor.execute(() -> runImport(task, upload));
+        } catch (TaskRejectedException e) {
+            tasks.remove(taskId);
+            deleteQuietly(upload);
+            throw e;
+        }
+        return taskId;
+    }
+
+    public PersonImportTask getTask(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    @Scheduled(fixedDelayString = "${gymmanager.import.cleanup-interval:60000}")
+    public void evictExpiredTasks() {
+        tasks.evictFinishedBefore(Instant.now().minus(taskTtl));
+    }
+
+    void runImport(PersonImportTask task, Path upload) {
+        task.transition(PersonImportTask.Status.PENDING, PersonImportTask.Status.IN_PROGRESS);
+        // Всё после перехода в IN_PROGRESS — внутри try: при любой ошибке задача станет FAILED,
+        // а загрузка удалится
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            Set<Long> gymIds = new HashSet<>(gymRepository.findAllIds());
+            Set<Long> trainerIds = new HashSet<>(trainerRepository.findAllIds());
+            PersonImportParser parser = new PersonImportParser(task.getFormat(), objectMapper);
+            List<Person> chunk = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                Person person;
+                try {
+                    PersonImportRow row = parser.parseLine(line);
+                    if (row == null) {
+                        continue;
+                    }
+                    task.rowRead();
+                    person = toPerson(row, gymIds, trainerIds);
+                } catch (ValidationException e) {
+                    task.rowRejected(lineNumber, e.getMessage());
+                    continue;
+                }
+                chunk.add(person);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(task, chunk);
+                }
+            }
+            flush(task, chunk);
+            task.transition(PersonImportTask.Status.IN_PROGRESS, PersonImportTask.Status.COMPLETED);
+            logger.info("Person import finished: {} rows read, {} imported, {} rejected",
+                    task.getRowsRead(), task.getRowsImported(), task.getRowsRejected());
+        } catch (Exception e) {
+            logger.error("Person import failed", e);
+            task.fail(e.getMessage());
+        } finally {
+            deleteQuietly(upload);
+        }
+    }
+
+    private void flush(PersonImportTask task, List<Person> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        personService.savePeople(chunk);
+        task.rowsImported(chunk.size());
+        chunk.clear();
+    }
+
+    private Person toPerson(PersonImportRow row, Set<Long> gymIds, Set<Long> trainerIds) {
+        String name = row.name() != null ? row.name().trim() : "";
+        if (name.isEmpty()) {
+            throw new ValidationException("Имя клиента обязательно");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new ValidationException("Имя должно быть между 1 и 100 символами");
+        }
+
+        Person person = new Person();
+        person.setName(name);
+        person.setPhoneNumber(row.phoneNumber());
+        if (row.gymId() != null) {
+            if (!gymIds.contains(row.gymId())) {
+                throw new ValidationException("Спортзал с ID " + row.gymId() + " не найден");
+            }
+            Gym gym = new Gym();
+            gym.setId(row.gymId());
+            person.setGym(gym);
+        }
+        if (row.trainerId() != null) {
+            if (!trainerIds.contains(row.trainerId())) {
+                throw new ValidationException("Тренер с ID " + row.trainerId() + " не найден");
+            }
+            Trainer trainer = new Trainer();
+            trainer.setId(row.trainerId());
+            person.setTrainer(trainer);
+        }
+        return person;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete import file {}", file, e);
+        }
+    }
+}
@@ -1,35 +1,72 @@
 package com.gym.management.gymmanager.service;
 
+import com.gym.management.gymmanager.cache.GymCache;
+import com.gym.management.gymmanager.cache.GymTypeQueryCache;
 import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.cache.TrainerCache;
+import com.gym.management.gymmanager.dto.PersonSummary;
 import com.gym.management.gymmanager.exception.ResourceNotFoundException;
 import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.journal.ChangeAction;
+import com.gym.management.gymmanager.journal.JournalRecordType;
 import com.gym.management.gymmanager.model.Gym;
 import com.gym.management.gymmanager.model.Person;
 import com.gym.management.gymmanager.model.Trainer;
 import com.gym.management.gymmanager.repository.GymRepository;
 import com.gym.management.gymmanager.repository.PersonRepository;
 import com.gym.management.gymmanager.repository.TrainerRepository;
+import com.gym.management.gymmanager.stats.PersonLinks;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class PersonService {
     private static final String CLIENT_NOT_FOUND_PREFIX = "Клиент с ID ";
     private static final String NOT_FOUND_SUFFIX = " не найден";
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 1000;
+    // Кратно hibernate.jdbc.batch_size; каждая порция сохраняется в своей транзакции
+    private static final int BULK_CHUNK_SIZE = 1000;
 
     private final PersonRepository personRepository;
     private final PersonCache personCache;
     private final TrainerRepository trainerRepository;
     private final GymRepository gymRepository;
+    private final TrainerCache trainerCache;
+    private final GymCache gymCache;
+    private final GymTypeQueryCache gymTypeQueryCache;
+    private final StatsService statsService;
+    private final EventJournalService eventJournalService;
+    private final EntityManager entityManager;
 
     public PersonService(PersonRepository personRepository,
                          PersonCache personCache,
                          TrainerRepository trainerRepository,
-                         GymRepository gymRepository) {
+                         GymRepository gymRepository,
+                         TrainerCache trainerCache,
+                         GymCache gymCache,
+                         GymTypeQueryCache gymTypeQueryCache,
+                         StatsService statsService,
+                         EventJournalService eventJournalService,
+                         EntityManager entityManager) {
         this.personRepository = personRepository;
         this.personCache = personCache;
         this.trainerRepository = trainerRepository;
         this.gymRepository = gymRepository;
+        this.trainerCache = trainerCache;
+        this.gymCache = gymCache;
+        this.gymTypeQueryCache = gymTypeQueryCache;
+        this.statsService = statsService;
+        this.eventJournalService = eventJournalService;
+        this.entityManager = entityManager;
     }
 
     public Person savePerson(Person person) {
@@ -39,6 +76,9 @@ public class PersonService {
 
         Person saved = personRepository.save(person);
         personCache.putToIdCache(saved.getId(), saved);
+        evictTrainer(saved.getTrainer());
+        statsService.personAdded(PersonLinks.of(saved));
+        journalChange(ChangeAction.CREATE, saved.getId(), PersonLinks.of(saved));
         return saved;
     }
 
@@ -56,6 +96,9 @@ public class PersonService {
                 .orElseThrow(() -> new ResourceNotFoundException(CLIENT_NOT_FOUND_PREFIX + id + NOT_FOUND_SUFFIX));
     }
 
+    // Весь список — одна транзакция, как было с одиночным saveAll: при ошибке в любой порции
+    // не остаётся ни строк, ни обновлений статистики и журнала
+    @Transactional
     public List<Person> savePeople(List<Person> people) {
         if (people == null || people.isEmpty()) {
             throw new ValidationException("Список клиентов пустой");
@@ -72,8 +115,27 @@ public class PersonService {
                             .toList());
         }
 
-        List<Person> savedPeople = personRepository.saveAll(people);
-        savedPeople.forEach(person -> personCache.putToIdCache(person.getId(), person));
+        // Массовый импорт не прогревает кеш: иначе он вытеснит горячие записи.
+        // Порции сбрасываются в БД и вычищаются из контекста, чтобы он не рос со списком
+        List<Person> savedPeople = new ArrayList<>(people.size());
+        for (int from = 0; from < people.size(); from += BULK_CHUNK_SIZE) {
+            List<Person> chunk = people.subList(from, Math.min(from + BULK_CHUNK_SIZE, people.size()));
+            savedPeople.addAll(personRepository.saveAll(chunk));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        List<Long> trainerIds = savedPeople.stream()
+                .map(Person::getTrainer)
+                .filter(Objects::nonNull)
+                .map(Trainer::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        AfterCommit.run(() -> trainerIds.forEach(trainerCache::evict));
+        savedPeople.forEach(saved -> {
+            statsService.personAdded(PersonLinks.of(saved));
+            journalChange(ChangeAction.CREATE, saved.getId(), PersonLinks.of(saved));
+        });
         return savedPeople;
     }
 
@@ -87,7 +149,18 @@ public class PersonService {
             throw new ResourceNotFoundException(CLIENT_NOT_FOUND_PREFIX + id + NOT_FOUND_SUFFIX);
         }
 
+        Optional<PersonLinks> links = cachedPerson != null
+                ? Optional.of(PersonLinks.of(cachedPerson))
+                : personRepository.findLinksById(id);
         personRepository.deleteById(id);
+        links.ifPresentOrElse(statsService::personRemoved, statsService::requestReconcile);
+        journalChange(ChangeAction.DELETE, id, links.orElse(PersonLinks.NONE));
+        // Без кешированной копии неизвестно, у какого тренера был клиент
+        if (cachedPerson != null) {
+            evictTrainer(cachedPerson.getTrainer());
+        } else {
+            trainerCache.clear();
+        }
         return true;
     }
 
@@ -99,6 +172,9 @@ public class PersonService {
             throw new ValidationException("Имя клиента обязательно");
         }
 
+        Trainer previousTrainer = person.getTrainer();
+        String previousGymType = person.getGym() != null ? person.getGym().getType() : null;
+        PersonLinks previousLinks = PersonLinks.of(person);
         person.setName(personDetails.getName());
         person.setPhoneNumber(personDetails.getPhoneNumber());
         person.setTrainer(personDetails.getTrainer());
@@ -106,19 +182,47 @@ public class PersonService {
 
         Person updated = personRepository.save(person);
         personCache.putToIdCache(id, updated);
+        evictTrainer(previousTrainer);
+        evictTrainer(updated.getTrainer());
+        // Имя и телефон тоже входят в страницы по типу зала, поэтому сбрасываем оба типа,
+        // даже если зал не менялся
+        gymTypeQueryCache.invalidate(previousGymType);
+        gymTypeQueryCache.invalidate(gymTypeOf(updated.getGym()));
+        statsService.personMoved(previousLinks, PersonLinks.of(updated));
+        journalChange(ChangeAction.UPDATE, id, PersonLinks.of(updated));
         return updated;
     }
 
+    // В теле запроса зал может прийти только с ID — тогда тип берём из кеша залов
+    private String gymTypeOf(Gym gym) {
+        if (gym == null) {
+            return null;
+        }
+        if (gym.getType() != null || gym.getId() == null) {
+            return gym.getType();
+        }
+        return gymCache.get(gym.getId(), gymRepository::findById).map(Gym::getType).orElse(null);
+    }
+
     public Person assignTrainerToPerson(Long personId, Long trainerId) {
         Person person = personRepository.findById(personId)
                 .orElseThrow(() -> new ResourceNotFoundException(CLIENT_NOT_FOUND_PREFIX + personId + NOT_FOUND_SUFFIX));
 
-        Trainer trainer = trainerRepository.findById(trainerId)
+        // Тренер в кеше хранится вместе с клиентами и после назначения всё равно сбрасывается,
+        // поэтому при промахе грузим его из БД, не заполняя кеш
+        Trainer trainer = trainerCache.peek(trainerId)
+                .or(() -> trainerRepository.findById(trainerId))
                 .orElseThrow(() -> new ResourceNotFoundException("Тренер с ID " + trainerId + NOT_FOUND_SUFFIX));
 
+        Trainer previousTrainer = person.getTrainer();
+        PersonLinks previousLinks = PersonLinks.of(person);
         person.setTrainer(trainer);
         Person updated = personRepository.save(person);
         personCache.putToIdCache(personId, updated);
+        evictTrainer(previousTrainer);
+        evictTrainer(trainer);
+        statsService.personMoved(previousLinks, PersonLinks.of(updated));
+        journalChange(ChangeAction.UPDATE, personId, PersonLinks.of(updated));
         return updated;
     }
 
@@ -126,12 +230,19 @@ public class PersonService {
         Person person = personRepository.findById(personId)
                 .orElseThrow(() -> new ResourceNotFoundException(CLIENT_NOT_FOUND_PREFIX + personId + NOT_FOUND_SUFFIX));
 
-        Gym gym = gymRepository.findById(gymId)
+        Gym gym = gymCache.get(gymId, gymRepository::findById)
                 .orElseThrow(() -> new ResourceNotFoundException("Спортзал с ID " + gymId + NOT_FOUND_SUFFIX));
 
+        String previousGymType = person.getGym() != null ? person.getGym().getType() : null;
+        PersonLinks previousLinks = PersonLinks.of(person);
         person.setGym(gym);
         Person updated = personRepository.save(person);
         personCache.putToIdCache(personId, updated);
+        // Клиент ушёл из выборки старого типа зала и появился в выборке нового
+        gymTypeQueryCache.invalidate(previousGymType);
+        gymTypeQueryCache.invalidate(gym.getType());
+        statsService.personMoved(previousLinks, PersonLinks.of(updated));
+        journalChange(ChangeAction.UPDATE, personId, PersonLinks.of(updated));
         return updated;
     }
 
@@ -139,11 +250,68 @@ public class PersonService {
         return personRepository.findByGymType(gymType);
     }
 
-    public List<Person> getPersonsByGymTypeNative(String gymType) {
-        return personRepository.findPersonsByGymTypeNative(gymType);
+    // Один запрос с тренером и залом, без списка ID в IN: тот упирался в лимит 32767
+    // параметров и не сохранял порядок
+    public List<Person> getPersonsByGymTypeOrderById(String gymType) {
+        return personRepository.findByGymTypeOrderById(gymType);
+    }
+
+    public List<PersonSummary> getPersonSummaries() {
+        return personRepository.findAllSummaries();
+    }
+
+    public List<PersonSummary> getPersonSummariesByGymType(String gymType) {
+        return personRepository.findSummariesByGymType(gymType);
+    }
+
+    // Страница плоских записей по типу зала (курсор — ID последнего клиента), через кеш
+    public List<PersonSummary> getPersonSummariesByGymTypePage(String gymType, Long after, Integer limit) {
+        if (gymType == null || gymType.isBlank()) {
+            throw new ValidationException("Тип спортзала обязателен");
+        }
+        long cursor = after != null ? after : 0L;
+        int pageLimit = limit != null ? limit : DEFAULT_PAGE_LIMIT;
+        if (pageLimit < 1 || pageLimit > MAX_PAGE_LIMIT) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + MAX_PAGE_LIMIT);
+        }
+        return gymTypeQueryCache.get(gymType, cursor, pageLimit, () ->
+                personRepository.findSummariesByGymTypeAfter(gymType, cursor, PageRequest.of(0, pageLimit)));
     }
 
     public List<Person> getAllPeople() {
         return personRepository.findAll();
     }
+
+    public List<Person> getPeoplePage(Long after, Integer limit) {
+        long cursor = after != null ? after : 0L;
+        int pageLimit = limit != null ? limit : DEFAULT_PAGE_LIMIT;
+        if (pageLimit < 1 || pageLimit > MAX_PAGE_LIMIT) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + MAX_PAGE_LIMIT);
+        }
+        return personRepository.findPageAfter(cursor, PageRequest.of(0, pageLimit));
+    }
+
+    // Отдаёт клиентов по одному, не накапливая их: каждая строка после обработки
+    // отсоединяется от контекста, так что память не растёт с размером таблицы
+    @Transactional(readOnly = true)
+    public void streamAllPeople(Consumer<Person> consumer) {
+        try (Stream<Person> people = personRepository.streamAll()) {
+            people.forEach(person -> {
+                consumer.accept(person);
+                entityManager.detach(person);
+            });
+        }
+    }
+
+    private void journalChange(ChangeAction action, Long id, PersonLinks links) {
+        eventJournalService.appendChange(JournalRecordType.PERSON, action, id, links.gymId(), links.trainerId());
+    }
+
+    // Кешированный тренер хранит список своих клиентов, поэтому при любом
+    // изменении состава его нужно сбросить
+    private void evictTrainer(Trainer trainer) {
+        if (trainer != null && trainer.getId() != null) {
+            trainerCache.evict(trainer.getId());
+        }
+    }
 }
@@ -0,0 +1,171 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.stats.OccupancyStats;
+import com.gym.management.gymmanager.stats.PersonLinks;
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Материализованная статистика по клиентам и абонементам. Сервисы сообщают сюда
+ * о каждой записи; внутри транзакции приращение применяется только после коммита.
+ * Раз в reconcile-interval (и после массовой загрузки в обход сервисов) счётчики
+ * пересчитываются по БД.
+ */
+@Service
+public class StatsService {
+    private static final Logger logger = LoggerFactory.getLogger(StatsService.class);
+
+    private final OccupancyStats stats = new OccupancyStats();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final Duration reconcileInterval;
+    private final Clock clock = Clock.systemUTC();
+    private final AtomicBoolean reconcileRequested = new AtomicBoolean();
+
+    public StatsService(JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${gymmanager.stats.reconcile-interval:10m}") Duration reconcileInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Все запросы сверки видят один снимок БД
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            logger.warn("Initial stats reconciliation failed, counters start empty", e);
+            reconcileRequested.set(true);
+        }
+    }
+
+    public void personAdded(PersonLinks links) {
+        AfterCommit.run(() -> stats.addPerson(links, 1));
+    }
+
+    public void personRemoved(PersonLinks links) {
+        AfterCommit.run(() -> stats.addPerson(links, -1));
+    }
+
+    public void personMoved(PersonLinks before, PersonLinks after) {
+        AfterCommit.run(() -> stats.movePerson(before, after));
+    }
+
+    public void gymSaved(Long gymId, String type) {
+        AfterCommit.run(() -> stats.setGymType(gymId, type));
+    }
+
+    public void gymRemoved(Long gymId) {
+        AfterCommit.run(() -> stats.removeGym(gymId));
+    }
+
+    public void membershipAdded(String type) {
+        AfterCommit.run(() -> stats.addMembership(type, 1));
+    }
+
+    public void membershipRemoved(String type) {
+        AfterCommit.run(() -> stats.addMembership(type, -1));
+    }
+
+    // Для записей в обход сервисов (COPY, фоновый импорт): пересчёт при ближайшей проверке
+    public void requestReconcile() {
+        reconcileRequested.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${gymmanager.stats.check-interval:5000}")
+    public void reconcileIfDue() {
+        Instant last = stats.reconciledAt();
+        boolean due = last == null || last.plus(reconcileInterval).isBefore(clock.instant());
+        if (reconcileRequested.getAndSet(false) || due) {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                logger.warn("Stats reconciliation failed, will retry", e);
+                reconcileRequested.set(true);
+            }
+        }
+    }
+
+    public void reconcile() {
+        long started = System.nanoTime();
+        OccupancyStats.Counts counts = snapshotTransaction.execute(status -> loadCounts());
+        long drift = stats.replace(counts, clock.instant());
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        if (drift != 0) {
+            logger.info("Stats reconciled in {} ms, corrected drift of {}", elapsedMs, drift);
+        } else {
+            logger.debug("Stats reconciled in {} ms, no drift", elapsedMs);
+        }
+    }
+
+    private OccupancyStats.Counts loadCounts() {
+        long[] persons = new long[1];
+        Map<Long, Long> byGym = new HashMap<>();
+        jdbcTemplate.query("SELECT gym_id, COUNT(*) FROM person GROUP BY gym_id", rs -> {
+            long count = rs.getLong(2);
+            persons[0] += count;
+            long gymId = rs.getLong(1);
+            if (!rs.wasNull()) {
+                byGym.put(gymId, count);
+            }
+        });
+        Map<Long, Long> byTrainer = new HashMap<>();
+        jdbcTemplate.query("SELECT trainer_id, COUNT(*) FROM person WHERE trainer_id IS NOT NULL GROUP BY trainer_id",
+                rs -> {
+                    byTrainer.put(rs.getLong(1), rs.getLong(2));
+                });
+        Map<Long, String> gymTypes = new HashMap<>();
+        jdbcTemplate.query("SELECT id, type FROM gym WHERE type IS NOT NULL", rs -> {
+            gymTypes.put(rs.getLong(1), rs.getString(2));
+        });
+        long[] memberships = new long[1];
+        Map<String, Long> byType = new HashMap<>();
+        jdbcTemplate.query("SELECT type, COUNT(*) FROM membership GROUP BY type", rs -> {
+            long count = rs.getLong(2);
+            memberships[0] += count;
+            String type = rs.getString(1);
+            if (type != null) {
+                byType.put(type, count);
+            }
+        });
+        return new OccupancyStats.Counts(persons[0], byGym, byTrainer, gymTypes, memberships[0], byType);
+    }
+
+    public Map<String, Object> getSnapshot() {
+        return stats.snapshot();
+    }
+
+    public long getPersonsInGym(Long gymId) {
+        return stats.personsInGym(gymId);
+    }
+
+    public long getPersonsInGymType(String type) {
+        return stats.personsInGymType(type);
+    }
+
+    public long getPersonsOfTrainer(Long trainerId) {
+        return stats.personsOfTrainer(trainerId);
+    }
+
+    public long getMembershipsOfType(String type) {
+        return stats.membershipsOfType(type);
+    }
+}
@@ -1,27 +1,70 @@
 package com.gym.management.gymmanager.service;
 
+import com.gym.management.gymmanager.cache.TrainerCache;
+import com.gym.management.gymmanager.dto.PersonSummary;
+import com.gym.management.gymmanager.dto.TrainerSummary;
+import com.gym.management.gymmanager.exception.ResourceNotFoundException;
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.journal.ChangeAction;
+import com.gym.management.gymmanager.journal.JournalRecordType;
 import com.gym.management.gymmanager.model.Trainer;
+import com.gym.management.gymmanager.repository.PersonRepository;
 import com.gym.management.gymmanager.repository.TrainerRepository;
 import java.util.List;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TrainerService {
-    private TrainerRepository trainerRepository;
+    private static final int DEFAULT_ROSTER_LIMIT = 100;
+    private static final int MAX_ROSTER_LIMIT = 1000;
+
+    private final TrainerRepository trainerRepository;
+    private final PersonRepository personRepository;
+    private final TrainerCache trainerCache;
+    private final EventJournalService eventJournalService;
+
+    public TrainerService(TrainerRepository trainerRepository, PersonRepository personRepository,
+                          TrainerCache trainerCache, EventJournalService eventJournalService) {
+        this.trainerRepository = trainerRepository;
+        this.personRepository = personRepository;
+        this.trainerCache = trainerCache;
+        this.eventJournalService = eventJournalService;
+    }
 
     // 1. Сохранение нового тренера
     public Trainer saveTrainer(Trainer trainer) {
-        return trainerRepository.save(trainer);
+        Trainer saved = trainerRepository.save(trainer);
+        trainerCache.evict(saved.getId());
+        eventJournalService.appendChange(JournalRecordType.TRAINER, ChangeAction.CREATE, saved.getId(), null, null);
+        return saved;
     }
 
-    // 2. Получение тренера по ID
+    // 2. Получение тренера по ID (клиенты загружаются сразу, чтобы кешированный объект
+    // можно было сериализовать вне сессии)
     public Trainer getTrainerById(Long id) {
-        return trainerRepository.findById(id).orElse(null);
+        return trainerCache.get(id, trainerRepository::findWithPersonsById).orElse(null);
     }
 
-    // 3. Получение всех тренеров
-    public List<Trainer> getAllTrainers() {
-        return trainerRepository.findAll();
+    // 3. Плоский список тренеров с числом клиентов — один запрос
+    public List<TrainerSummary> getTrainerSummaries() {
+        return trainerRepository.findAllSummaries();
+    }
+
+    // Клиенты тренера страницами по курсору (ID последнего клиента прошлой страницы).
+    // Существование тренера проверяем только на пустой странице
+    public List<PersonSummary> getTrainerRoster(Long trainerId, Long after, Integer limit) {
+        long cursor = after != null ? after : 0L;
+        int pageLimit = limit != null ? limit : DEFAULT_ROSTER_LIMIT;
+        if (pageLimit < 1 || pageLimit > MAX_ROSTER_LIMIT) {
+            throw new ValidationException("Параметр limit должен быть от 1 до " + MAX_ROSTER_LIMIT);
+        }
+        List<PersonSummary> page = personRepository.findSummariesByTrainerAfter(trainerId, cursor,
+                PageRequest.of(0, pageLimit));
+        if (page.isEmpty() && !trainerRepository.existsById(trainerId)) {
+            throw new ResourceNotFoundException("Тренер с ID " + trainerId + " не найден");
+        }
+        return page;
     }
 
     // 4. Обновление тренера по ID
@@ -31,7 +74,10 @@ public class TrainerService {
             existingTrainer.setName(updatedTrainer.getName());
             existingTrainer.setTrainingType(updatedTrainer.getTrainingType());
             existingTrainer.setGender(updatedTrainer.getGender());
-            return trainerRepository.save(existingTrainer);
+            Trainer saved = trainerRepository.save(existingTrainer);
+            trainerCache.evict(id);
+            eventJournalService.appendChange(JournalRecordType.TRAINER, ChangeAction.UPDATE, id, null, null);
+            return saved;
         }
         return null;
     }
@@ -40,6 +86,8 @@ public class TrainerService {
     public boolean deleteTrainer(Long id) {
         if (trainerRepository.existsById(id)) {
             trainerRepository.deleteById(id);
+            trainerCache.evict(id);
+            eventJournalService.appendChange(JournalRecordType.TRAINER, ChangeAction.DELETE, id, null, null);
             return true;
         }
         return false;
@@ -1,17 +1,134 @@
 package com.gym.management.gymmanager.service;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import com.gym.management.gymmanager.analytics.Granularity;
+import com.gym.management.gymmanager.analytics.VisitAnalytics;
+import com.gym.management.gymmanager.analytics.VisitKey;
+import com.gym.management.gymmanager.dto.VisitTotal;
+import com.gym.management.gymmanager.model.VisitCheckpoint;
+import com.gym.management.gymmanager.repository.VisitCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class VisitCounterService {
-    private final AtomicInteger counter = new AtomicInteger();
+    private static final Logger logger = LoggerFactory.getLogger(VisitCounterService.class);
+    private static final int CHECKPOINT_BATCH_SIZE = 500;
+    // В БД добавляется только прирост с прошлого чекпоинта
+    private static final String UPSERT_SQL = "INSERT INTO visit_checkpoint (endpoint, gym_id, bucket_start, visits) "
+            + "VALUES (?, ?, ?, ?) ON CONFLICT (endpoint, gym_id, bucket_start) "
+            + "DO UPDATE SET visits = visit_checkpoint.visits + EXCLUDED.visits";
+
+    public static final String TRACK_ENDPOINT = "visit.track";
+
+    private final VisitAnalytics analytics = new VisitAnalytics();
+    private final VisitCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GymService gymService;
+    private final Clock clock = Clock.systemUTC();
+
+    public VisitCounterService(VisitCheckpointRepository checkpointRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               GymService gymService) {
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gymService = gymService;
+    }
+
+    // Итоги и корзины последних двух суток поднимаются из чекпоинтов, иначе
+    // счётчики обнулялись бы при каждом рестарте
+    @PostConstruct
+    void restore() {
+        try {
+            for (VisitTotal total : checkpointRepository.sumByEndpointAndGym()) {
+                analytics.restoreTotal(new VisitKey(total.endpoint(), total.gymId()), total.total());
+            }
+            Instant from = clock.instant().minus(Duration.ofHours(VisitAnalytics.HOUR_WINDOW));
+            for (VisitCheckpoint checkpoint : checkpointRepository.findByBucketStartGreaterThanEqual(from)) {
+                analytics.restoreMinute(new VisitKey(checkpoint.getEndpoint(), checkpoint.getGymId()),
+                        Granularity.MINUTE.bucketOf(checkpoint.getBucketStart().getEpochSecond()),
+                        checkpoint.getVisits());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to restore visit counters from checkpoints, starting from zero", e);
+        }
+    }
 
     public void increment() {
-        counter.incrementAndGet();
+        record(TRACK_ENDPOINT, null);
+    }
+
+    // Серия по залу живёт до рестарта и уходит в чекпоинты, поэтому ID несуществующего
+    // зала считается в общую корзину NO_GYM, а не заводит новую серию
+    public void record(String endpoint, Long gymId) {
+        Long knownGymId = gymId != null && gymService.getGymById(gymId) != null ? gymId : null;
+        analytics.record(VisitKey.of(endpoint, knownGymId), clock.instant().getEpochSecond());
+    }
+
+    public long getCount() {
+        return analytics.total(null, null);
+    }
+
+    public long getCount(String endpoint, Long gymId) {
+        return analytics.total(endpoint, gymId);
+    }
+
+    public long[] getSeries(String endpoint, Long gymId, Granularity granularity, int window) {
+        return analytics.series(endpoint, gymId, granularity, window, clock.instant().getEpochSecond());
+    }
+
+    public double getRate(String endpoint, Long gymId, Granularity granularity, int window) {
+        return analytics.ratePerInterval(endpoint, gymId, granularity, window, clock.instant().getEpochSecond());
+    }
+
+    public Map<String, Long> getPercentiles(String endpoint, Long gymId, Granularity granularity, int window) {
+        return analytics.percentiles(endpoint, gymId, granularity, window, clock.instant().getEpochSecond());
+    }
+
+    // Накопленные приросты пишутся пачками, каждая в своей транзакции; пачка, которая
+    // не закоммитилась, остаётся непомеченной и уйдёт следующим чекпоинтом
+    @Scheduled(fixedDelayString = "${gymmanager.visits.checkpoint-interval:30000}")
+    public void checkpoint() {
+        List<VisitAnalytics.MinuteCount> rows = analytics.unpersistedMinutes();
+        if (rows.isEmpty()) {
+            return;
+        }
+        for (int from = 0; from < rows.size(); from += CHECKPOINT_BATCH_SIZE) {
+            List<VisitAnalytics.MinuteCount> chunk = rows.subList(from, Math.min(from + CHECKPOINT_BATCH_SIZE, rows.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(UPSERT_SQL, chunk, chunk.size(), (ps, row) -> {
+                            ps.setString(1, row.key().endpoint());
+                            ps.setLong(2, row.key().gymId());
+                            ps.setTimestamp(3, Timestamp.from(Instant.ofEpochSecond(row.minute() * 60)));
+                            ps.setLong(4, row.delta());
+                        }));
+                analytics.markPersisted(chunk);
+            } catch (RuntimeException e) {
+                logger.warn("Visit checkpoint failed, {} minute buckets will be retried", rows.size() - from, e);
+                return;
+            }
+        }
+        logger.debug("Checkpointed {} visit minute buckets", rows.size());
     }
 
-    public int getCount() {
-        return counter.get();
+    @PreDestroy
+    void flush() {
+        checkpoint();
     }
 }
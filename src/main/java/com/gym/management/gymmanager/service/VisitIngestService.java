@@ -0,0 +1,136 @@
+package com.gym.management.gymmanager.service;
+
+import com.gym.management.gymmanager.exception.ValidationException;
+import com.gym.management.gymmanager.ingest.VisitBatch;
+import com.gym.management.gymmanager.ingest.VisitRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Приём отметок о посещении. Запрос только кладёт событие в кольцевой буфер; один
+ * поток переносит их пачками в журнал (EventJournalService), откуда они попадают в visit.
+ * Так поток запроса не ждёт ни создания нового сегмента журнала, ни ошибок записи в него:
+ * пока журнал недоступен, события копятся в буфере, а при заполнении буфера — 503.
+ */
+@Service
+public class VisitIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(VisitIngestService.class);
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MS = 10_000;
+
+    private final EventJournalService eventJournalService;
+    private final VisitRingBuffer buffer;
+    private final Duration maxFuture;
+    private final Duration maxAge;
+    private final long retryNanos;
+    private final Counter accepted;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public VisitIngestService(EventJournalService eventJournalService, MeterRegistry meterRegistry,
+                              @Value("${gymmanager.visits.ingest.capacity:65536}") int capacity,
+                              @Value("${gymmanager.visits.ingest.retry-interval:1s}") Duration retryInterval,
+                              @Value("${gymmanager.visits.ingest.max-future:5m}") Duration maxFuture,
+                              @Value("${gymmanager.visits.ingest.max-age:7d}") Duration maxAge) {
+        this.eventJournalService = eventJournalService;
+        this.buffer = new VisitRingBuffer(capacity);
+        this.maxFuture = maxFuture;
+        this.maxAge = maxAge;
+        this.retryNanos = retryInterval.toNanos();
+        this.accepted = Counter.builder("gymmanager.visits.ingest.accepted")
+                .description("Принятые отметки о посещении")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("gymmanager.visits.ingest.rejected")
+                .description("Отметки, отклонённые из-за переполнения буфера")
+                .register(meterRegistry);
+        Gauge.builder("gymmanager.visits.ingest.queued", buffer, VisitRingBuffer::size)
+                .description("Отметки в буфере, ещё не записанные в журнал")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        drainer = new Thread(this::drainLoop, "visit-ingest");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    // Бин зависит от EventJournalService и останавливается раньше, так что остаток буфера успевает в журнал
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(drainer);
+        drainer.join(STOP_TIMEOUT_MS);
+        if (drainer.isAlive()) {
+            logger.warn("Visit ingest did not finish in {} ms, {} visits may be lost", STOP_TIMEOUT_MS, buffer.size());
+        }
+    }
+
+    public boolean record(long personId, Long gymId, Instant visitedAt) {
+        validate(personId, gymId, visitedAt);
+        if (buffer.offer(personId, gymId != null ? gymId : 0L, visitedAt.toEpochMilli())) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // Время вне окна в журнал не пускаем: для него пришлось бы создавать секцию visit на далёкий месяц
+    public void validate(long personId, Long gymId, Instant visitedAt) {
+        if (personId <= 0) {
+            throw new ValidationException("Некорректный ID клиента: " + personId);
+        }
+        if (gymId != null && gymId <= 0) {
+            throw new ValidationException("Некорректный ID спортзала: " + gymId);
+        }
+        Instant now = Instant.now();
+        if (visitedAt.isAfter(now.plus(maxFuture)) || visitedAt.isBefore(now.minus(maxAge))) {
+            throw new ValidationException("Время посещения вне допустимого окна: " + visitedAt);
+        }
+    }
+
+    private void drainLoop() {
+        VisitBatch batch = new VisitBatch(DRAIN_BATCH);
+        int appended = 0;
+        while (running || buffer.size() > 0 || appended < batch.size()) {
+            if (appended == batch.size()) {
+                batch.clear();
+                appended = 0;
+                if (buffer.drainTo(batch) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+            }
+            while (appended < batch.size() && eventJournalService.appendVisit(batch.personId(appended),
+                    batch.gymId(appended), batch.visitedAt(appended))) {
+                appended++;
+            }
+            // Журнал отказал: неперенесённый хвост пачки ждёт повтора, новые отметки копятся в буфере
+            if (appended < batch.size()) {
+                if (!running) {
+                    logger.warn("Journal is unavailable on shutdown, {} visits are lost",
+                            batch.size() - appended + buffer.size());
+                    break;
+                }
+                LockSupport.parkNanos(retryNanos);
+            }
+        }
+        logger.info("Visit ingest stopped");
+    }
+}
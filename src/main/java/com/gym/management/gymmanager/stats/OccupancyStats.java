@@ -0,0 +1,202 @@
+package com.gym.management.gymmanager.stats;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счётчики клиентов по залу, типу зала и тренеру и абонементов по типу. Меняются
+ * приращениями при каждой записи, читаются за O(1). Сверка с БД подменяет всё
+ * состояние целиком одной ссылкой, так что читатель никогда не видит его наполовину.
+ * Приращения, попавшие между запросами сверки и подменой, теряются до следующей сверки.
+ */
+public class OccupancyStats {
+
+    // Итоги сверки с БД
+    public record Counts(long persons,
+                         Map<Long, Long> personsByGym,
+                         Map<Long, Long> personsByTrainer,
+                         Map<Long, String> gymTypes,
+                         long memberships,
+                         Map<String, Long> membershipsByType) {
+    }
+
+    private static final class State {
+        final LongAdder persons = new LongAdder();
+        final LongAdder memberships = new LongAdder();
+        final Map<Long, LongAdder> personsByGym = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> personsByGymType = new ConcurrentHashMap<>();
+        final Map<Long, LongAdder> personsByTrainer = new ConcurrentHashMap<>();
+        final Map<String, LongAdder> membershipsByType = new ConcurrentHashMap<>();
+        final Map<Long, String> gymTypes = new ConcurrentHashMap<>();
+        final Instant reconciledAt;
+
+        State(Instant reconciledAt) {
+            this.reconciledAt = reconciledAt;
+        }
+    }
+
+    private volatile State state = new State(null);
+
+    public void addPerson(PersonLinks links, long delta) {
+        State current = state;
+        current.persons.add(delta);
+        if (links.gymId() != null) {
+            add(current.personsByGym, links.gymId(), delta);
+            String type = current.gymTypes.get(links.gymId());
+            if (type != null) {
+                add(current.personsByGymType, type, delta);
+            }
+        }
+        if (links.trainerId() != null) {
+            add(current.personsByTrainer, links.trainerId(), delta);
+        }
+    }
+
+    public void movePerson(PersonLinks before, PersonLinks after) {
+        if (!before.equals(after)) {
+            addPerson(before, -1);
+            addPerson(after, 1);
+        }
+    }
+
+    // Новый зал или смена его типа: клиенты зала переезжают в счётчик нового типа
+    public void setGymType(Long gymId, String type) {
+        State current = state;
+        String previous = type != null ? current.gymTypes.put(gymId, type) : current.gymTypes.remove(gymId);
+        if (Objects.equals(previous, type)) {
+            return;
+        }
+        long members = count(current.personsByGym, gymId);
+        if (previous != null) {
+            add(current.personsByGymType, previous, -members);
+        }
+        if (type != null) {
+            add(current.personsByGymType, type, members);
+        }
+    }
+
+    public void removeGym(Long gymId) {
+        setGymType(gymId, null);
+        state.personsByGym.remove(gymId);
+    }
+
+    public void addMembership(String type, long delta) {
+        State current = state;
+        current.memberships.add(delta);
+        if (type != null) {
+            add(current.membershipsByType, type, delta);
+        }
+    }
+
+    public long persons() {
+        return state.persons.sum();
+    }
+
+    public long personsInGym(Long gymId) {
+        return count(state.personsByGym, gymId);
+    }
+
+    public long personsInGymType(String type) {
+        return count(state.personsByGymType, type);
+    }
+
+    public long personsOfTrainer(Long trainerId) {
+        return count(state.personsByTrainer, trainerId);
+    }
+
+    public long memberships() {
+        return state.memberships.sum();
+    }
+
+    public long membershipsOfType(String type) {
+        return count(state.membershipsByType, type);
+    }
+
+    public Instant reconciledAt() {
+        return state.reconciledAt;
+    }
+
+    public Map<String, Object> snapshot() {
+        State current = state;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("persons", current.persons.sum());
+        result.put("memberships", current.memberships.sum());
+        result.put("personsByGym", sums(current.personsByGym));
+        result.put("personsByGymType", sums(current.personsByGymType));
+        result.put("personsByTrainer", sums(current.personsByTrainer));
+        result.put("membershipsByType", sums(current.membershipsByType));
+        result.put("reconciledAt", current.reconciledAt);
+        return result;
+    }
+
+    /**
+     * Подменяет состояние итогами сверки. Возвращает расхождение — сумму модулей
+     * разниц по залам, тренерам и типам абонементов плюс разницу итогов.
+     */
+    public long replace(Counts counts, Instant reconciledAt) {
+        State fresh = new State(reconciledAt);
+        fresh.persons.add(counts.persons());
+        fresh.memberships.add(counts.memberships());
+        fresh.gymTypes.putAll(counts.gymTypes());
+        counts.personsByGym().forEach((gymId, count) -> {
+            add(fresh.personsByGym, gymId, count);
+            String type = counts.gymTypes().get(gymId);
+            if (type != null) {
+                add(fresh.personsByGymType, type, count);
+            }
+        });
+        counts.personsByTrainer().forEach((trainerId, count) -> add(fresh.personsByTrainer, trainerId, count));
+        counts.membershipsByType().forEach((type, count) -> add(fresh.membershipsByType, type, count));
+
+        State previous = state;
+        state = fresh;
+        return Math.abs(previous.persons.sum() - counts.persons())
+                + Math.abs(previous.memberships.sum() - counts.memberships())
+                + drift(previous.personsByGym, fresh.personsByGym)
+                + drift(previous.personsByTrainer, fresh.personsByTrainer)
+                + drift(previous.membershipsByType, fresh.membershipsByType);
+    }
+
+    private static <K> void add(Map<K, LongAdder> counters, K key, long delta) {
+        LongAdder counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        counter.add(delta);
+    }
+
+    private static <K> long count(Map<K, LongAdder> counters, K key) {
+        LongAdder counter = key != null ? counters.get(key) : null;
+        return counter != null ? counter.sum() : 0;
+    }
+
+    // Нулевые счётчики не показываем: они остаются после ухода последнего клиента
+    private static <K> Map<K, Long> sums(Map<K, LongAdder> counters) {
+        Map<K, Long> result = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long sum = counter.sum();
+            if (sum != 0) {
+                result.put(key, sum);
+            }
+        });
+        return result;
+    }
+
+    private static <K> long drift(Map<K, LongAdder> before, Map<K, LongAdder> after) {
+        long drift = 0;
+        for (Map.Entry<K, LongAdder> entry : before.entrySet()) {
+            drift += Math.abs(entry.getValue().sum() - count(after, entry.getKey()));
+        }
+        for (Map.Entry<K, LongAdder> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                drift += Math.abs(entry.getValue().sum());
+            }
+        }
+        return drift;
+    }
+}
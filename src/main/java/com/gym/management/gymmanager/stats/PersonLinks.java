@@ -0,0 +1,17 @@
+package com.gym.management.gymmanager.stats;
+
+import com.gym.management.gymmanager.model.Person;
+
+// Зал и тренер клиента — всё, от чего зависят счётчики OccupancyStats
+public record PersonLinks(Long gymId, Long trainerId) {
+    public static final PersonLinks NONE = new PersonLinks(null, null);
+
+    public static PersonLinks of(Person person) {
+        if (person == null) {
+            return NONE;
+        }
+        return new PersonLinks(
+                person.getGym() != null ? person.getGym().getId() : null,
+                person.getTrainer() != null ? person.getTrainer().getId() : null);
+    }
+}
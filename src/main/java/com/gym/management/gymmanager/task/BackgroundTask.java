@@ -0,0 +1,104 @@
+package com.gym.management.gymmanager.task;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Общая часть фоновых задач (выгрузка логов, импорт и экспорт клиентов): состояние с
+ * переходами через CAS, отметки времени, {@link Future} для отмены и файл результата,
+ * если задача его производит.
+ */
+public class BackgroundTask {
+    public enum Status { PENDING, IN_PROGRESS, COMPLETED, FAILED, CANCELLED }
+
+    private final AtomicReference<Status> status = new AtomicReference<>(Status.PENDING);
+    private final Instant createdAt = Instant.now();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String filePath;
+    private volatile long bytes;
+    private volatile Future<?> future;
+
+    public Status getStatus() {
+        return status.get();
+    }
+
+    public void setStatus(Status newStatus) {
+        status.set(newStatus);
+        if (isFinal(newStatus)) {
+            finishedAt = Instant.now();
+        }
+    }
+
+    // Переход только из ожидаемого состояния: отмена не должна затираться завершением и наоборот
+    public boolean transition(Status expected, Status newStatus) {
+        if (!status.compareAndSet(expected, newStatus)) {
+            return false;
+        }
+        if (newStatus == Status.IN_PROGRESS) {
+            startedAt = Instant.now();
+        } else if (isFinal(newStatus)) {
+            finishedAt = Instant.now();
+        }
+        return true;
+    }
+
+    private static boolean isFinal(Status status) {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    // Путь на сервере наружу не отдаём
+    @JsonIgnore
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    @JsonIgnore
+    public Future<?> getFuture() {
+        return future;
+    }
+
+    public void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    // Время ожидания в очереди пула; для ещё не начатой задачи — до текущего момента
+    public Duration getQueueTime() {
+        Instant end = startedAt != null ? startedAt : (finishedAt != null ? finishedAt : Instant.now());
+        return Duration.between(createdAt, end);
+    }
+
+    public Duration getRunTime() {
+        if (startedAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now());
+    }
+}
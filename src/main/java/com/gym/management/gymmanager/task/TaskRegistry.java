@@ -0,0 +1,78 @@
+package com.gym.management.gymmanager.task;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * Реестр фоновых задач одного вида. Владеет жизненным циклом задач: регистрация,
+ * отмена через {@link Future} и вытеснение завершённых задач по возрасту.
+ */
+public class TaskRegistry<T extends BackgroundTask> {
+    private final Map<String, T> tasks = new ConcurrentHashMap<>();
+    private final boolean interruptOnCancel;
+
+    // interruptOnCancel=false — для задач, которые пишут в FileChannel и сами проверяют отмену:
+    // прерывание закрыло бы канал посреди записи
+    public TaskRegistry(boolean interruptOnCancel) {
+        this.interruptOnCancel = interruptOnCancel;
+    }
+
+    public String register(T task) {
+        String taskId = UUID.randomUUID().toString();
+        tasks.put(taskId, task);
+        return taskId;
+    }
+
+    public T get(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    public T remove(String taskId) {
+        return tasks.remove(taskId);
+    }
+
+    // Ожидающая задача просто снимается с очереди, выполняющаяся прерывается или сама
+    // замечает CANCELLED; false, если задача уже завершилась
+    public boolean cancel(String taskId) {
+        T task = tasks.get(taskId);
+        if (task == null) {
+            return false;
+        }
+        boolean cancelled = task.transition(BackgroundTask.Status.PENDING, BackgroundTask.Status.CANCELLED)
+                || task.transition(BackgroundTask.Status.IN_PROGRESS, BackgroundTask.Status.CANCELLED);
+        Future<?> future = task.getFuture();
+        if (cancelled && future != null) {
+            future.cancel(interruptOnCancel);
+        }
+        return cancelled;
+    }
+
+    // Убирает из реестра задачи, завершившиеся раньше threshold, и возвращает их вызывающему
+    // для освобождения ресурсов (файлов выгрузки)
+    public List<T> evictFinishedBefore(Instant threshold) {
+        List<T> evicted = new ArrayList<>();
+        tasks.entrySet().removeIf(entry -> {
+            Instant finishedAt = entry.getValue().getFinishedAt();
+            if (finishedAt == null || finishedAt.isAfter(threshold)) {
+                return false;
+            }
+            evicted.add(entry.getValue());
+            return true;
+        });
+        return evicted;
+    }
+
+    public Map<BackgroundTask.Status, Integer> countByStatus() {
+        Map<BackgroundTask.Status, Integer> counts = new EnumMap<>(BackgroundTask.Status.class);
+        for (T task : tasks.values()) {
+            counts.merge(task.getStatus(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,22 @@
+-- Базы, созданные ещё ddl-auto=update, помечены версией 1 без выполнения V1, и в самых
+-- старых из них нет person_seq (ID клиентов выдавал IDENTITY-столбец) и visit_checkpoint.
+-- Создаём их здесь, до V2 и V3, которые на них опираются; сдвиг person_seq за
+-- максимальный ID делает V3. На базе, созданной V1, скрипт ничего не меняет.
+CREATE SEQUENCE IF NOT EXISTS person_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS visit_checkpoint (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    endpoint     VARCHAR(255),
+    gym_id       BIGINT NOT NULL,
+    bucket_start TIMESTAMP(6) WITH TIME ZONE,
+    visits       BIGINT NOT NULL
+);
+
+-- Без уникального ключа не работает ON CONFLICT при сбросе минутных счётчиков
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_visit_checkpoint_bucket') THEN
+        ALTER TABLE visit_checkpoint
+            ADD CONSTRAINT uk_visit_checkpoint_bucket UNIQUE (endpoint, gym_id, bucket_start);
+    END IF;
+END $$;
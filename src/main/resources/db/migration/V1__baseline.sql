@@ -0,0 +1,45 @@
+-- Схема в том виде, в каком её до Flyway создавал ddl-auto=update.
+-- На уже существующей базе этот скрипт не выполняется: baseline-on-migrate
+-- помечает её версией 1, и дальше применяются только следующие миграции.
+
+CREATE TABLE gym (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type    VARCHAR(255),
+    address VARCHAR(255),
+    number  VARCHAR(255)
+);
+
+CREATE TABLE trainer (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255),
+    training_type VARCHAR(255),
+    gender        VARCHAR(255)
+);
+
+-- ID клиентов выдаются блоками по 50 (pooled-оптимизатор Hibernate)
+CREATE SEQUENCE person_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE person (
+    id           BIGINT PRIMARY KEY,
+    name         VARCHAR(100) NOT NULL,
+    phone_number VARCHAR(255),
+    trainer_id   BIGINT REFERENCES trainer (id),
+    gym_id       BIGINT REFERENCES gym (id)
+);
+
+CREATE TABLE membership (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    type       VARCHAR(255),
+    start_date DATE,
+    end_date   DATE,
+    person_id  BIGINT UNIQUE REFERENCES person (id)
+);
+
+CREATE TABLE visit_checkpoint (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    endpoint     VARCHAR(255),
+    gym_id       BIGINT NOT NULL,
+    bucket_start TIMESTAMP(6) WITH TIME ZONE,
+    visits       BIGINT NOT NULL,
+    CONSTRAINT uk_visit_checkpoint_bucket UNIQUE (endpoint, gym_id, bucket_start)
+);
@@ -0,0 +1,13 @@
+-- Вторичные индексы под фильтры и пагинацию. CONCURRENTLY не блокирует запись в
+-- большие таблицы на время построения, поэтому скрипт идёт вне транзакции (см. .conf).
+-- IF NOT EXISTS: idx_person_trainer_id мог уже появиться через ddl-auto=update.
+
+-- Клиенты по типу зала: gym отбирается по type, клиенты — по gym_id сразу в порядке id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_gym_type ON gym (type);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_person_gym_id ON person (gym_id, id);
+
+-- Ростер тренера (/api/trainers/{id}/persons)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_person_trainer_id ON person (trainer_id, id);
+
+-- Восстановление счётчиков посещений за последние двое суток при старте
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_visit_checkpoint_bucket_start ON visit_checkpoint (bucket_start);
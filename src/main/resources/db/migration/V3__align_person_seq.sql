@@ -0,0 +1,6 @@
+-- Раньше ID клиентов выдавал IDENTITY-столбец. Последовательность person_seq, созданная
+-- поверх существующих данных, начинается с 1 — сдвигаем её за максимальный ID, чтобы
+-- блоки pooled-оптимизатора не пересекались со старыми строками.
+-- (Раньше это делал PersonSequenceInitializer при каждом старте.)
+SELECT setval('person_seq', (SELECT COALESCE(MAX(id), 0) FROM person) + 50)
+WHERE (SELECT last_value FROM person_seq) < (SELECT COALESCE(MAX(id), 0) FROM person) + 50;
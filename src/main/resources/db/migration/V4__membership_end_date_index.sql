@@ -0,0 +1,2 @@
+-- Загрузка индекса истечения абонементов при старте: только end_date >= сегодня
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_membership_end_date ON membership (end_date);
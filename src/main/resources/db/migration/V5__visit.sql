@@ -0,0 +1,13 @@
+-- История посещений по клиентам. Пишется пачками из EventJournalService при разборе журнала;
+-- VisitIngestService только передаёт отметки через кольцевой буфер в журнал. Помесячные
+-- секции visit_pYYYYMM EventJournalService создаёт сам перед первой вставкой в месяц.
+-- Внешних ключей на person и gym нет: одна отметка с чужим ID откатывала бы всю пачку.
+CREATE TABLE visit (
+    person_id  BIGINT      NOT NULL,
+    gym_id     BIGINT,
+    visited_at TIMESTAMPTZ NOT NULL
+) PARTITION BY RANGE (visited_at);
+
+-- Индексы объявлены на родительской таблице и создаются в каждой секции
+CREATE INDEX idx_visit_person_visited_at ON visit (person_id, visited_at);
+CREATE INDEX idx_visit_gym_visited_at ON visit (gym_id, visited_at);
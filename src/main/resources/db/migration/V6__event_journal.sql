@@ -0,0 +1,19 @@
+-- Изменения клиентов, залов и тренеров из журнала событий (EventJournalService).
+-- ref1/ref2 — связанные ID на момент изменения (у клиента — зал и тренер)
+CREATE TABLE audit_event (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(16) NOT NULL,
+    action      VARCHAR(16) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    ref1        BIGINT,
+    ref2        BIGINT,
+    occurred_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_audit_event_entity ON audit_event (entity_type, entity_id, occurred_at);
+
+-- Номер последней записи журнала, применённой к БД; обновляется в одной транзакции с данными
+CREATE TABLE journal_checkpoint (
+    name             VARCHAR(64) PRIMARY KEY,
+    applied_sequence BIGINT      NOT NULL
+);
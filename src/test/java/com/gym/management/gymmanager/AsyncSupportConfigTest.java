@@ -0,0 +1,34 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.gym.management.gymmanager.config.AsyncConfig;
+import com.gym.management.gymmanager.config.WebConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+
+class AsyncSupportConfigTest {
+
+    private static class CapturingConfigurer extends AsyncSupportConfigurer {
+        AsyncTaskExecutor executor() {
+            return getTaskExecutor();
+        }
+    }
+
+    @Test
+    void testMvcAsyncRequestsRunOnBoundedApplicationExecutor() {
+        ThreadPoolTaskExecutor executor = new AsyncConfig(new StandardEnvironment()).applicationTaskExecutor(8, 50);
+        CapturingConfigurer configurer = new CapturingConfigurer();
+
+        new WebConfig().asyncSupportConfigurer(executor).configureAsyncSupport(configurer);
+
+        // Не SimpleAsyncTaskExecutor MVC по умолчанию, а пул с пределом потоков и очереди
+        assertSame(executor, configurer.executor());
+        assertEquals(8, executor.getMaxPoolSize());
+        assertEquals(50, executor.getQueueCapacity());
+    }
+}
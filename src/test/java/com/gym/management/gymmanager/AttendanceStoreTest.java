@@ -0,0 +1,96 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gym.management.gymmanager.attendance.AttendanceStore;
+import com.gym.management.gymmanager.dto.RetentionCohort;
+import com.gym.management.gymmanager.dto.TrainerVisits;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AttendanceStoreTest {
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final AttendanceStore store = new AttendanceStore(pool);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static int minute(LocalDate date, int hour) {
+        return AttendanceStore.startMinute(date) + hour * 60;
+    }
+
+    @Test
+    void testHourlyByGym_CountsAcrossChunksAndFiltersByType() {
+        // Больше одного чанка, чтобы итоги сливались из нескольких задач
+        for (int i = 0; i < 200_000; i++) {
+            store.append(i, 1 + i % 2, minute(DAY, i % 24), 0, i % 2 == 0 ? "CROSSFIT" : "YOGA", null);
+        }
+        store.append(1L, 1, minute(DAY.plusDays(5), 7), 0, "CROSSFIT", null);
+
+        Map<Long, long[]> hourly = store.hourlyByGym(DAY, DAY, null);
+
+        assertTrue(store.chunks() > 1);
+        assertEquals(2, hourly.size());
+        long total = 0;
+        for (long[] hours : hourly.values()) {
+            for (long count : hours) {
+                total += count;
+            }
+        }
+        assertEquals(200_000, total);
+        assertEquals(1, store.hourlyByGym(DAY.plusDays(5), DAY.plusDays(5), null).get(1L)[7]);
+
+        Map<Long, long[]> crossfit = store.hourlyByGym(DAY, DAY, "CROSSFIT");
+        assertEquals(List.of(1L), List.copyOf(crossfit.keySet()));
+        assertTrue(store.hourlyByGym(DAY, DAY, "BOXING").isEmpty());
+    }
+
+    @Test
+    void testTopTrainers_OrdersByVisits() {
+        store.append(1L, 1, minute(DAY, 9), 7, null, null);
+        store.append(2L, 1, minute(DAY, 10), 7, null, null);
+        store.append(3L, 1, minute(DAY, 11), 8, null, null);
+        store.append(4L, 1, minute(DAY, 12), 0, null, null);
+        store.append(5L, 1, minute(DAY.minusDays(1), 12), 8, null, null);
+
+        assertEquals(List.of(new TrainerVisits(7L, 2), new TrainerVisits(8L, 1)), store.topTrainers(DAY, DAY, 10));
+        assertEquals(List.of(new TrainerVisits(7L, 2)), store.topTrainers(DAY, DAY, 1));
+    }
+
+    @Test
+    void testRetention_GroupsByFirstVisitAndMembershipType() {
+        LocalDate january = LocalDate.of(2025, 1, 15);
+        // Клиент 1 пришёл в январе и вернулся в марте, клиент 2 — только в январе
+        store.append(1L, 1, minute(january, 10), 0, null, "MONTHLY");
+        store.append(1L, 1, minute(january.plusMonths(2), 10), 0, null, "YEARLY");
+        store.append(2L, 1, minute(january, 12), 0, null, "MONTHLY");
+        // Клиент 3 впервые пришёл до окна — в когорты окна не попадает
+        store.append(3L, 1, minute(january.minusMonths(1), 10), 0, null, "MONTHLY");
+        store.append(3L, 1, minute(january, 10), 0, null, "MONTHLY");
+        store.append(4L, 1, minute(january.plusMonths(1), 10), 0, null, null);
+
+        List<RetentionCohort> cohorts = store.retention(YearMonth.of(2025, 1), 3);
+
+        assertEquals(2, cohorts.size());
+        RetentionCohort first = cohorts.get(0);
+        assertEquals(YearMonth.of(2025, 1), first.cohort());
+        assertEquals("MONTHLY", first.membershipType());
+        assertEquals(2, first.persons());
+        assertArrayEquals(new long[] {2, 0, 1}, first.retained());
+        RetentionCohort second = cohorts.get(1);
+        assertEquals(YearMonth.of(2025, 2), second.cohort());
+        assertEquals(null, second.membershipType());
+        assertArrayEquals(new long[] {1, 0}, second.retained());
+    }
+}
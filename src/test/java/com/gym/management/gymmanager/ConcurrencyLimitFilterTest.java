@@ -0,0 +1,38 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.gym.management.gymmanager.config.ConcurrencyLimitFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(1, Duration.ZERO, new SimpleMeterRegistry());
+
+    private int plainRequestStatus() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/persons"), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void testAsyncRequestHoldsPermitUntilCompletion() throws Exception {
+        MockHttpServletRequest streaming = new MockHttpServletRequest("GET", "/api/persons/stream");
+        streaming.setAsyncSupported(true);
+        filter.doFilter(streaming, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        // Контроллер уже вернул управление, но поток ещё пишется — единственное разрешение занято
+        assertEquals(429, plainRequestStatus());
+
+        streaming.getAsyncContext().complete();
+
+        assertEquals(200, plainRequestStatus());
+        assertEquals(200, plainRequestStatus());
+    }
+}
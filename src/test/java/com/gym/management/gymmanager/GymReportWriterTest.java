@@ -0,0 +1,43 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gym.management.gymmanager.report.GymReportRow;
+import com.gym.management.gymmanager.report.GymReportWriter;
+import com.gym.management.gymmanager.report.ReportFormat;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class GymReportWriterTest {
+    private static final GymReportRow ROW = new GymReportRow(1L, "CROSSFIT", "Ленина, 5 \"Б\"", null, 40, 3, 20, 2, 310);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testCsv_QuotesOnlyFieldsThatNeedIt() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GymReportWriter writer = GymReportWriter.open(ReportFormat.CSV, out, objectMapper)) {
+            writer.write(ROW);
+        }
+
+        assertEquals("gym_id,type,address,number,members,trainers,max_trainer_load,expiring_memberships,visits\n"
+                + "1,CROSSFIT,\"Ленина, 5 \"\"Б\"\"\",,40,3,20,2,310\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testJson_WritesArrayOfRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GymReportWriter writer = GymReportWriter.open(ReportFormat.JSON, out, objectMapper)) {
+            writer.write(ROW);
+            writer.write(ROW);
+        }
+
+        JsonNode report = objectMapper.readTree(out.toByteArray());
+        assertEquals(2, report.size());
+        assertEquals(310, report.get(0).get("visits").asLong());
+        assertEquals("Ленина, 5 \"Б\"", report.get(1).get("address").asText());
+    }
+}
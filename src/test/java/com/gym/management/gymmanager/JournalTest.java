@@ -0,0 +1,128 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.gym.management.gymmanager.journal.ChangeAction;
+import com.gym.management.gymmanager.journal.Journal;
+import com.gym.management.gymmanager.journal.JournalEntry;
+import com.gym.management.gymmanager.journal.JournalRecordType;
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JournalTest {
+    // Четыре записи в сегменте
+    private static final int SEGMENT_BYTES = 4 * Journal.RECORD_BYTES;
+
+    @Test
+    void testAppendAndRead_RoundTripsAcrossSegments(@TempDir Path dir) throws Exception {
+        try (Journal journal = Journal.open(dir, SEGMENT_BYTES, 0)) {
+            for (long i = 0; i < 10; i++) {
+                assertEquals(i, journal.append(JournalRecordType.VISIT, (short) 0, 100 + i, 7, 0, 1_000 + i));
+            }
+            journal.append(JournalRecordType.PERSON, ChangeAction.UPDATE.code(), 42, 1, 2, 5_000);
+
+            JournalEntry entry = new JournalEntry();
+            assertEquals(Journal.ReadStatus.VALID, journal.read(9, entry));
+            assertEquals(109, entry.a());
+            assertEquals(1_009, entry.timestampMillis());
+            assertEquals(Journal.ReadStatus.VALID, journal.read(10, entry));
+            assertEquals(JournalRecordType.PERSON, entry.type());
+            assertEquals(ChangeAction.UPDATE, entry.action());
+            assertEquals(Journal.ReadStatus.PENDING, journal.read(11, entry));
+        }
+    }
+
+    @Test
+    void testOpen_ContinuesAfterLastRecordAndDetectsCorruption(@TempDir Path dir) throws Exception {
+        try (Journal journal = Journal.open(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 6; i++) {
+                journal.append(JournalRecordType.VISIT, (short) 0, i + 1, 0, 0, i);
+            }
+        }
+        // Порча байта в поле a записи 5 (второй сегмент, вторая запись)
+        Path segment = segments(dir).get(1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) 0xFF}), Journal.RECORD_BYTES + 20);
+        }
+
+        try (Journal journal = Journal.open(dir, SEGMENT_BYTES, 0)) {
+            assertEquals(6, journal.nextSequence());
+            JournalEntry entry = new JournalEntry();
+            assertEquals(Journal.ReadStatus.VALID, journal.read(4, entry));
+            assertEquals(Journal.ReadStatus.CORRUPT, journal.read(5, entry));
+        }
+    }
+
+    @Test
+    void testDeleteBefore_KeepsCurrentSegmentAndSequence(@TempDir Path dir) throws Exception {
+        try (Journal journal = Journal.open(dir, SEGMENT_BYTES, 0)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(JournalRecordType.VISIT, (short) 0, i + 1, 0, 0, i);
+            }
+            assertEquals(2, journal.deleteBefore(10));
+            assertEquals(Journal.ReadStatus.MISSING, journal.read(0, new JournalEntry()));
+        }
+        assertEquals(1, segments(dir).size());
+        try (Journal journal = Journal.open(dir, SEGMENT_BYTES, 0)) {
+            assertEquals(10, journal.nextSequence());
+        }
+    }
+
+    @Test
+    void testRead_ConcurrentRolloverNeverReportsMissing(@TempDir Path dir) throws Exception {
+        int writers = 8;
+        int perWriter = 5_000;
+        long total = (long) writers * perWriter;
+        // По одной записи в сегменте: каждый append открывает новый файл
+        try (Journal journal = Journal.open(dir, Journal.RECORD_BYTES, 0)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        journal.append(JournalRecordType.VISIT, (short) 0, 1, 0, 0, i);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            // Читатель, как поток применения, идёт только до nextSequence(): номер уже занят,
+            // но сегмент может ещё создаваться
+            JournalEntry entry = new JournalEntry();
+            long sum = 0;
+            for (long cursor = 0; cursor < total; ) {
+                if (cursor >= journal.nextSequence()) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                Journal.ReadStatus status = journal.read(cursor, entry);
+                if (status == Journal.ReadStatus.PENDING) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                assertEquals(Journal.ReadStatus.VALID, status, "record " + cursor);
+                sum += entry.a();
+                cursor++;
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(total, sum);
+            journal.flush();
+            assertEquals(total, journal.flushedSequence());
+        }
+    }
+
+    private static List<Path> segments(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+}
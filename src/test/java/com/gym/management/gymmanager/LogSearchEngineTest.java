@@ -0,0 +1,88 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.gym.management.gymmanager.logging.LogQuery;
+import com.gym.management.gymmanager.logging.LogSearchEngine;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+
+class LogSearchEngineTest {
+
+    @TempDir
+    Path logDir;
+
+    private String extract(LogSearchEngine engine, String from, String to) throws IOException {
+        return extract(engine, from, to, null);
+    }
+
+    private String extract(LogSearchEngine engine, String from, String to, Level level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.extract(new LogQuery(LocalDateTime.parse(from), LocalDateTime.parse(to), level), Channels.newChannel(out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testExtract_ReturnsOnlyLinesInsideInterval() throws IOException {
+        Files.write(logDir.resolve("application-2025-04-01.log"), List.of(
+                "2025-04-01 10:00:00 INFO  [main] a - first",
+                "2025-04-01 10:00:30 INFO  [main] a - second",
+                "java.lang.IllegalStateException: stack",
+                "2025-04-01 10:01:15 INFO  [main] a - third",
+                "2025-04-01 10:05:00 INFO  [main] a - fourth"));
+        Files.write(logDir.resolve("application.log"), List.of(
+                "2025-04-02 09:00:00 INFO  [main] a - today"));
+
+        LogSearchEngine engine = new LogSearchEngine(logDir.toString());
+
+        assertEquals("2025-04-01 10:00:30 INFO  [main] a - second\n"
+                        + "java.lang.IllegalStateException: stack\n"
+                        + "2025-04-01 10:01:15 INFO  [main] a - third\n",
+                extract(engine, "2025-04-01T10:00:10", "2025-04-01T10:05:00"));
+        assertEquals("2025-04-02 09:00:00 INFO  [main] a - today\n",
+                extract(engine, "2025-04-02T00:00", "2025-04-03T00:00"));
+        assertEquals("", extract(engine, "2025-03-01T00:00", "2025-03-02T00:00"));
+    }
+
+    @Test
+    void testExtract_PicksUpLinesAppendedToActiveFile() throws IOException {
+        Path active = logDir.resolve("application.log");
+        Files.writeString(active, "2025-04-02 09:00:00 INFO  [main] a - one\n2025-04-02 09:01:00 INFO  [main] a - tw");
+
+        LogSearchEngine engine = new LogSearchEngine(logDir.toString());
+        assertEquals("2025-04-02 09:00:00 INFO  [main] a - one\n",
+                extract(engine, "2025-04-02T00:00", "2025-04-03T00:00"));
+
+        Files.writeString(active, "2025-04-02 09:00:00 INFO  [main] a - one\n2025-04-02 09:01:00 INFO  [main] a - two\n");
+        assertEquals("2025-04-02 09:01:00 INFO  [main] a - two\n",
+                extract(engine, "2025-04-02T09:01", "2025-04-03T00:00"));
+    }
+
+    @Test
+    void testExtract_FiltersByLevelKeepingStackTraces() throws IOException {
+        Files.write(logDir.resolve("application.log"), List.of(
+                "2025-04-02 09:00:00 INFO  [main] a - started",
+                "2025-04-02 09:00:01 ERROR [main] a - failed",
+                "java.lang.IllegalStateException: boom",
+                "\tat a.b(C.java:1)",
+                "2025-04-02 09:00:02 DEBUG [main] a - details",
+                "2025-04-02 09:00:03 WARN  [main] a - slow"));
+
+        LogSearchEngine engine = new LogSearchEngine(logDir.toString());
+
+        assertEquals("2025-04-02 09:00:01 ERROR [main] a - failed\n"
+                        + "java.lang.IllegalStateException: boom\n"
+                        + "\tat a.b(C.java:1)\n"
+                        + "2025-04-02 09:00:03 WARN  [main] a - slow\n",
+                extract(engine, "2025-04-02T00:00", "2025-04-03T00:00", Level.WARN));
+    }
+}
@@ -0,0 +1,62 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gym.management.gymmanager.expiry.ExpiringMembership;
+import com.gym.management.gymmanager.expiry.MembershipExpiryIndex;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableMap;
+import org.junit.jupiter.api.Test;
+
+class MembershipExpiryIndexTest {
+    private static final LocalDate MONDAY = LocalDate.of(2025, 4, 7);
+
+    private final MembershipExpiryIndex index = new MembershipExpiryIndex();
+
+    @Test
+    void testFind_ReturnsRangeInEndDateOrder() {
+        index.put(1L, 10L, MONDAY.plusDays(3));
+        index.put(2L, 20L, MONDAY);
+        index.put(3L, 30L, MONDAY.plusDays(10));
+
+        List<ExpiringMembership> week = index.find(MONDAY, MONDAY.plusDays(6), 10);
+
+        assertEquals(List.of(new ExpiringMembership(2L, 20L, MONDAY),
+                new ExpiringMembership(1L, 10L, MONDAY.plusDays(3))), week);
+        assertEquals(2, index.count(MONDAY, MONDAY.plusDays(6)));
+        assertEquals(1, index.find(MONDAY, MONDAY.plusDays(6), 1).size());
+    }
+
+    @Test
+    void testPut_MovesMembershipToNewEndDate() {
+        index.put(1L, 10L, MONDAY);
+        index.put(1L, 10L, MONDAY.plusDays(30));
+
+        assertEquals(0, index.count(MONDAY, MONDAY));
+        assertEquals(1, index.count(MONDAY.plusDays(30), MONDAY.plusDays(30)));
+        assertEquals(1, index.size());
+
+        assertTrue(index.remove(1L));
+        assertFalse(index.remove(1L));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testDrainBefore_RemovesOnlyExpiredDays() {
+        index.put(1L, 10L, MONDAY.minusDays(2));
+        index.put(2L, 20L, MONDAY.minusDays(1));
+        index.put(3L, 30L, MONDAY.minusDays(1));
+        index.put(4L, 40L, MONDAY);
+
+        NavigableMap<LocalDate, List<ExpiringMembership>> drained = index.drainBefore(MONDAY);
+
+        assertEquals(2, drained.size());
+        assertEquals(2, drained.get(MONDAY.minusDays(1)).size());
+        assertEquals(1, index.size());
+        assertFalse(index.remove(2L));
+        assertTrue(index.remove(4L));
+    }
+}
@@ -0,0 +1,42 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gym.management.gymmanager.checkin.MembershipValidityMap;
+import org.junit.jupiter.api.Test;
+
+class MembershipValidityMapTest {
+    private static final int TODAY = 20_000;
+
+    @Test
+    void testIsValid_ChecksBothEndsInclusive() {
+        MembershipValidityMap map = new MembershipValidityMap(0);
+        map.put(1L, TODAY - 30, TODAY);
+        map.put(2L, TODAY + 1, Integer.MAX_VALUE);
+
+        assertTrue(map.isValid(1L, TODAY));
+        assertFalse(map.isValid(1L, TODAY + 1));
+        assertFalse(map.isValid(2L, TODAY));
+        assertTrue(map.isValid(2L, TODAY + 1000));
+        assertFalse(map.isValid(3L, TODAY));
+    }
+
+    @Test
+    void testGrowAndRemove_KeepsEveryOtherKeyReachable() {
+        MembershipValidityMap map = new MembershipValidityMap(4);
+        for (long id = 1; id <= 10_000; id++) {
+            map.put(id, TODAY, TODAY);
+        }
+        for (long id = 2; id <= 10_000; id += 2) {
+            assertTrue(map.remove(id));
+        }
+
+        assertEquals(5_000, map.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id % 2 == 1, map.isValid(id, TODAY), "ID " + id);
+        }
+        assertFalse(map.remove(2L));
+    }
+}
@@ -0,0 +1,60 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.gym.management.gymmanager.stats.OccupancyStats;
+import com.gym.management.gymmanager.stats.PersonLinks;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class OccupancyStatsTest {
+    private final OccupancyStats stats = new OccupancyStats();
+
+    @Test
+    void testAddAndMovePerson_UpdatesGymTypeAndTrainer() {
+        stats.setGymType(1L, "VIP");
+        stats.setGymType(2L, "BASIC");
+        stats.addPerson(new PersonLinks(1L, 10L), 1);
+        stats.addPerson(new PersonLinks(1L, null), 1);
+
+        stats.movePerson(new PersonLinks(1L, 10L), new PersonLinks(2L, 11L));
+
+        assertEquals(2, stats.persons());
+        assertEquals(1, stats.personsInGym(1L));
+        assertEquals(1, stats.personsInGymType("VIP"));
+        assertEquals(1, stats.personsInGymType("BASIC"));
+        assertEquals(0, stats.personsOfTrainer(10L));
+        assertEquals(1, stats.personsOfTrainer(11L));
+    }
+
+    @Test
+    void testSetGymType_MovesExistingClientsBetweenTypes() {
+        stats.setGymType(1L, "VIP");
+        stats.addPerson(new PersonLinks(1L, null), 3);
+
+        stats.setGymType(1L, "BASIC");
+
+        assertEquals(0, stats.personsInGymType("VIP"));
+        assertEquals(3, stats.personsInGymType("BASIC"));
+
+        stats.removeGym(1L);
+        assertEquals(0, stats.personsInGymType("BASIC"));
+        assertEquals(0, stats.personsInGym(1L));
+    }
+
+    @Test
+    void testReplace_ReportsDriftAndResetsCounters() {
+        stats.addPerson(new PersonLinks(1L, null), 2);
+        stats.addMembership("MONTH", 1);
+
+        long drift = stats.replace(new OccupancyStats.Counts(3, Map.of(1L, 3L), Map.of(), Map.of(1L, "VIP"),
+                1, Map.of("MONTH", 1L)), Instant.EPOCH);
+
+        // Один клиент в итоге и один в зале 1
+        assertEquals(2, drift);
+        assertEquals(3, stats.personsInGymType("VIP"));
+        assertEquals(1, stats.membershipsOfType("MONTH"));
+        assertEquals(Instant.EPOCH, stats.reconciledAt());
+    }
+}
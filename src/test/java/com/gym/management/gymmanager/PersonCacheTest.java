@@ -0,0 +1,56 @@
+package com.gym.management.gymmanager;
+
+import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.model.Person;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonCacheTest {
+
+    private Person person(Long id) {
+        Person person = new Person();
+        person.setId(id);
+        person.setName("Client " + id);
+        return person;
+    }
+
+    @Test
+    void testPutGetRemove() {
+        PersonCache cache = new PersonCache(100, Duration.ofMinutes(1));
+        Person person = person(1L);
+
+        cache.putToIdCache(1L, person);
+        assertSame(person, cache.getPersonByIdCache(1L));
+
+        cache.removeFromIdCache(1L);
+        assertNull(cache.getPersonByIdCache(1L));
+    }
+
+    @Test
+    void testStatsCountHitsAndMisses() {
+        PersonCache cache = new PersonCache(100, Duration.ofMinutes(1));
+        cache.putToIdCache(1L, person(1L));
+
+        cache.getPersonByIdCache(1L);
+        cache.getPersonByIdCache(1L);
+        cache.getPersonByIdCache(2L);
+
+        assertEquals(2, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+        assertEquals(2L, cache.getStatsSnapshot().get("hits"));
+    }
+
+    @Test
+    void testMaximumSizeIsBounded() {
+        PersonCache cache = new PersonCache(10, Duration.ofMinutes(1));
+        for (long id = 1; id <= 1000; id++) {
+            cache.putToIdCache(id, person(id));
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.getAll().size() <= 10);
+        assertTrue(cache.getStats().evictionCount() > 0);
+    }
+}
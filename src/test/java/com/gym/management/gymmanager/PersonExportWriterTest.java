@@ -0,0 +1,71 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.gym.management.gymmanager.export.ExportFormat;
+import com.gym.management.gymmanager.export.PersonExportRow;
+import com.gym.management.gymmanager.export.PersonExportWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersonExportWriterTest {
+    private static final byte[] MAGIC = "GMCOL001".getBytes(StandardCharsets.US_ASCII);
+
+    private static PersonExportRow row(long id) {
+        return new PersonExportRow(id, "Клиент, " + id, null, id % 2 == 0 ? 7L : null, "Иван", 3L, "CROSSFIT",
+                "Ленина 5", "MONTHLY", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1));
+    }
+
+    private static void export(Path file, ExportFormat format, int rows, int rowGroupSize) throws Exception {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             PersonExportWriter writer = PersonExportWriter.open(format, channel, rowGroupSize)) {
+            for (int i = 1; i <= rows; i++) {
+                writer.write(row(i));
+            }
+        }
+    }
+
+    @Test
+    void testCsv_WritesHeaderAndQuotedRows(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("persons.csv");
+        export(file, ExportFormat.CSV, 2, 100);
+
+        String[] lines = Files.readString(file, StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("1,\"Клиент, 1\",,,Иван,3,CROSSFIT,Ленина 5,MONTHLY,2025-01-01,2025-02-01", lines[1]);
+        assertEquals("2,\"Клиент, 2\",,7,Иван,3,CROSSFIT,Ленина 5,MONTHLY,2025-01-01,2025-02-01", lines[2]);
+    }
+
+    @Test
+    void testColumnar_FooterDescribesRowGroups(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("persons.gmcol");
+        export(file, ExportFormat.COLUMNAR, 250, 100);
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        int length = bytes.limit();
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(bytes.array(), 0, 8));
+        assertArrayEquals(MAGIC, Arrays.copyOfRange(bytes.array(), length - 8, length));
+
+        int footerLength = bytes.getInt(length - 12);
+        assertEquals(250, bytes.getLong(length - 20));
+        // Перед итогом строк — три группы по (long смещение, int строки)
+        int groups = length - 20 - 3 * 12;
+        assertEquals(3, bytes.getInt(groups - 4));
+        assertEquals(8, bytes.getLong(groups));
+        assertEquals(100, bytes.getInt(groups + 8));
+        assertEquals(50, bytes.getInt(groups + 2 * 12 + 8));
+        assertEquals(11, bytes.getShort(length - 12 - footerLength));
+
+        // Первая колонка первой группы — id: битмап 13 байт и 100 разностей по одному байту
+        assertEquals(13 + 100, bytes.getInt(8));
+    }
+}
@@ -0,0 +1,134 @@
+package com.gym.management.gymmanager;
+
+import com.gym.management.gymmanager.dto.PersonSummary;
+import com.gym.management.gymmanager.dto.TrainerSummary;
+import com.gym.management.gymmanager.model.Gym;
+import com.gym.management.gymmanager.model.Person;
+import com.gym.management.gymmanager.model.Trainer;
+import com.gym.management.gymmanager.repository.PersonRepository;
+import com.gym.management.gymmanager.repository.TrainerRepository;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        // Миграции написаны под PostgreSQL; для H2 схему строит Hibernate
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PersonRepositoryQueryCountTest {
+
+    private static final int TRAINERS = 5;
+    private static final int GYMS = 4;
+    private static final int PEOPLE = 40;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    private Statistics statistics;
+    private Long firstTrainerId;
+
+    @BeforeEach
+    void setUp() {
+        Trainer[] trainers = new Trainer[TRAINERS];
+        for (int i = 0; i < TRAINERS; i++) {
+            Trainer trainer = new Trainer();
+            trainer.setName("Trainer " + i);
+            trainers[i] = entityManager.persist(trainer);
+        }
+        firstTrainerId = trainers[0].getId();
+        Gym[] gyms = new Gym[GYMS];
+        for (int i = 0; i < GYMS; i++) {
+            gyms[i] = entityManager.persist(new Gym(i % 2 == 0 ? "VIP" : "BASIC", "Street " + i, "N" + i));
+        }
+        for (int i = 0; i < PEOPLE; i++) {
+            Person person = new Person();
+            person.setName("Client " + i);
+            person.setTrainer(trainers[i % TRAINERS]);
+            person.setGym(gyms[i % GYMS]);
+            entityManager.persist(person);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllIsSingleQuery() {
+        List<Person> people = personRepository.findAll();
+
+        assertEquals(PEOPLE, people.size());
+        people.forEach(person -> assertNotNull(person.getGym().getType()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByGymTypeIsSingleQuery() {
+        List<Person> people = personRepository.findByGymType("VIP");
+
+        assertEquals(PEOPLE / 2, people.size());
+        people.forEach(person -> assertNotNull(person.getTrainer().getName()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTrainersWithPersonsIsSingleQuery() {
+        List<Trainer> trainers = trainerRepository.findAllWithPersons();
+
+        assertEquals(TRAINERS, trainers.size());
+        trainers.forEach(trainer -> trainer.getPersons().forEach(person -> assertNotNull(person.getGym())));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testSummariesAreSingleQuery() {
+        List<PersonSummary> people = personRepository.findAllSummaries();
+        List<TrainerSummary> trainers = trainerRepository.findAllSummaries();
+
+        assertEquals(PEOPLE, people.size());
+        assertEquals(TRAINERS, trainers.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTrainerSummariesCountClientsInOneQuery() {
+        List<TrainerSummary> trainers = trainerRepository.findAllSummaries();
+
+        assertEquals(TRAINERS, trainers.size());
+        trainers.forEach(trainer -> assertEquals(PEOPLE / TRAINERS, trainer.clientCount()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTrainerRosterPagesByCursor() {
+        List<PersonSummary> first = personRepository.findSummariesByTrainerAfter(firstTrainerId, 0L,
+                PageRequest.of(0, 5));
+        List<PersonSummary> second = personRepository.findSummariesByTrainerAfter(firstTrainerId,
+                first.get(first.size() - 1).id(), PageRequest.of(0, 5));
+
+        assertEquals(5, first.size());
+        assertEquals(PEOPLE / TRAINERS - 5, second.size());
+        assertTrue(second.get(0).id() > first.get(4).id());
+        second.forEach(person -> assertEquals(firstTrainerId, person.trainerId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
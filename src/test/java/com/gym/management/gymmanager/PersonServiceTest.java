@@ -1,6 +1,10 @@
 package com.gym.management.gymmanager;
 
+import com.gym.management.gymmanager.cache.GymCache;
+import com.gym.management.gymmanager.cache.GymTypeQueryCache;
 import com.gym.management.gymmanager.cache.PersonCache;
+import com.gym.management.gymmanager.cache.TrainerCache;
+import com.gym.management.gymmanager.dto.PersonSummary;
 import com.gym.management.gymmanager.exception.ResourceNotFoundException;
 import com.gym.management.gymmanager.exception.ValidationException;
 import com.gym.management.gymmanager.model.Gym;
@@ -9,10 +13,17 @@ import com.gym.management.gymmanager.model.Trainer;
 import com.gym.management.gymmanager.repository.GymRepository;
 import com.gym.management.gymmanager.repository.PersonRepository;
 import com.gym.management.gymmanager.repository.TrainerRepository;
+import com.gym.management.gymmanager.service.EventJournalService;
 import com.gym.management.gymmanager.service.PersonService;
+import com.gym.management.gymmanager.service.StatsService;
+import com.gym.management.gymmanager.stats.PersonLinks;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import java.time.Duration;
+import org.springframework.data.domain.PageRequest;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -23,6 +34,7 @@ import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,11 +55,29 @@ class PersonServiceTest {
     @Mock
     private PersonCache personCache;
 
+    @Spy
+    private TrainerCache trainerCache = new TrainerCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private GymCache gymCache = new GymCache(100, Duration.ofMinutes(10));
+
+    @Spy
+    private GymTypeQueryCache gymTypeQueryCache = new GymTypeQueryCache(100, Duration.ofSeconds(30));
+
+    @Mock
+    private StatsService statsService;
+
+    @Mock
+    private EventJournalService eventJournalService;
+
+    @Mock
+    private EntityManager entityManager;
+
     private final Long personId = 54L;
 
     @BeforeEach
     void setUp() {
-        reset(personRepository, trainerRepository, gymRepository, personCache);
+        reset(personRepository, trainerRepository, gymRepository, personCache, statsService);
     }
 
     @Test
@@ -108,7 +138,26 @@ class PersonServiceTest {
         List<Person> savedPeople = personService.savePeople(people);
         assertEquals(2, savedPeople.size());
         verify(personRepository, times(1)).saveAll(people);
-        verify(personCache, times(2)).putToIdCache(any(), any());
+        verify(personCache, never()).putToIdCache(any(), any());
+    }
+
+    @Test
+    void testSavePeople_SavesInChunks() {
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Person person = new Person();
+            person.setName("Person " + i);
+            people.add(person);
+        }
+        when(personRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Person> savedPeople = personService.savePeople(people);
+
+        assertEquals(2500, savedPeople.size());
+        verify(personRepository, times(3)).saveAll(anyList());
+        // Каждая порция сбрасывается и вычищается из контекста внутри общей транзакции
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
     }
 
     @Test
@@ -142,6 +191,28 @@ class PersonServiceTest {
         verify(personRepository, times(1)).findAll();
     }
 
+    @Test
+    void testGetPeoplePage_UsesCursorAndLimit() {
+        Person person = new Person();
+        person.setId(11L);
+        person.setName("Next Person");
+
+        when(personRepository.findPageAfter(10L, PageRequest.of(0, 5))).thenReturn(List.of(person));
+
+        List<Person> page = personService.getPeoplePage(10L, 5);
+
+        assertEquals(1, page.size());
+        verify(personRepository, times(1)).findPageAfter(10L, PageRequest.of(0, 5));
+        verify(personRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetPeoplePage_ValidationException() {
+        assertThrows(ValidationException.class, () -> personService.getPeoplePage(0L, 0));
+        assertThrows(ValidationException.class, () -> personService.getPeoplePage(0L, 100_000));
+        verify(personRepository, never()).findPageAfter(any(), any());
+    }
+
     @Test
     void testUpdatePerson_Success() {
         Person existingPerson = new Person();
@@ -231,6 +302,65 @@ class PersonServiceTest {
         verify(personCache, times(1)).putToIdCache(personId, person);
     }
 
+    @Test
+    void testGymTypePageIsCachedUntilGymAssignment() {
+        PersonSummary summary = new PersonSummary(personId, "Test Client", null, null, null, 1L, "VIP");
+        when(personRepository.findSummariesByGymTypeAfter("VIP", 0L, PageRequest.of(0, 100)))
+                .thenReturn(List.of(summary));
+
+        assertEquals(List.of(summary), personService.getPersonSummariesByGymTypePage("VIP", null, null));
+        assertEquals(List.of(summary), personService.getPersonSummariesByGymTypePage("VIP", null, null));
+        verify(personRepository, times(1)).findSummariesByGymTypeAfter("VIP", 0L, PageRequest.of(0, 100));
+
+        Person person = new Person();
+        person.setId(personId);
+        Gym gym = new Gym();
+        gym.setId(1L);
+        gym.setType("VIP");
+        when(personRepository.findById(personId)).thenReturn(Optional.of(person));
+        when(gymRepository.findById(gym.getId())).thenReturn(Optional.of(gym));
+        when(personRepository.save(any(Person.class))).thenReturn(person);
+        personService.assignGymToPerson(personId, gym.getId());
+
+        personService.getPersonSummariesByGymTypePage("VIP", null, null);
+        verify(personRepository, times(2)).findSummariesByGymTypeAfter("VIP", 0L, PageRequest.of(0, 100));
+    }
+
+    @Test
+    void testUpdatePerson_InvalidatesPreviousAndNewGymTypePages() {
+        Gym vip = new Gym();
+        vip.setId(1L);
+        vip.setType("VIP");
+        Gym basic = new Gym();
+        basic.setId(2L);
+        basic.setType("BASIC");
+        Person person = new Person();
+        person.setId(personId);
+        person.setName("Test Client");
+        person.setGym(vip);
+        // В теле запроса зал приходит только с ID
+        Gym gymReference = new Gym();
+        gymReference.setId(2L);
+        Person details = new Person();
+        details.setName("Test Client");
+        details.setGym(gymReference);
+
+        when(personRepository.findById(personId)).thenReturn(Optional.of(person));
+        when(personRepository.save(person)).thenReturn(person);
+        when(gymRepository.findById(2L)).thenReturn(Optional.of(basic));
+
+        personService.updatePerson(personId, details);
+
+        verify(gymTypeQueryCache).invalidate("VIP");
+        verify(gymTypeQueryCache).invalidate("BASIC");
+    }
+
+    @Test
+    void testGymTypePageRejectsBadLimit() {
+        assertThrows(ValidationException.class,
+                () -> personService.getPersonSummariesByGymTypePage("VIP", null, 0));
+    }
+
     @Test
     void testDeletePerson() {
         Person person = new Person();
@@ -249,6 +379,7 @@ class PersonServiceTest {
         verify(personCache, times(1)).removeFromIdCache(personId);
         verify(personRepository, times(1)).existsById(personId);
         verify(personRepository, times(1)).deleteById(personId);
+        verify(statsService).personRemoved(PersonLinks.NONE);
     }
 
     @Test
@@ -0,0 +1,63 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gym.management.gymmanager.logging.AsyncLogTask;
+import com.gym.management.gymmanager.logging.LogQuery;
+import com.gym.management.gymmanager.task.TaskRegistry;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class TaskRegistryTest {
+
+    private final TaskRegistry<AsyncLogTask> registry = new TaskRegistry<>(true);
+
+    private AsyncLogTask newTask() {
+        LocalDateTime from = LocalDateTime.of(2025, 4, 1, 0, 0);
+        return new AsyncLogTask(new LogQuery(from, from.plusDays(1), null));
+    }
+
+    @Test
+    void testCancel_PendingTaskCancelsFuture() {
+        AsyncLogTask task = newTask();
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        task.setFuture(future);
+        String taskId = registry.register(task);
+
+        assertTrue(registry.cancel(taskId));
+        assertEquals(AsyncLogTask.Status.CANCELLED, task.getStatus());
+        assertTrue(future.isCancelled());
+        // Исполнитель, добравшийся до задачи позже, не должен её запускать
+        assertFalse(task.transition(AsyncLogTask.Status.PENDING, AsyncLogTask.Status.IN_PROGRESS));
+    }
+
+    @Test
+    void testCancel_FinishedTaskIsNotCancelled() {
+        AsyncLogTask task = newTask();
+        String taskId = registry.register(task);
+        task.transition(AsyncLogTask.Status.PENDING, AsyncLogTask.Status.IN_PROGRESS);
+        task.transition(AsyncLogTask.Status.IN_PROGRESS, AsyncLogTask.Status.COMPLETED);
+
+        assertFalse(registry.cancel(taskId));
+        assertEquals(AsyncLogTask.Status.COMPLETED, task.getStatus());
+    }
+
+    @Test
+    void testEvictFinishedBefore_KeepsRunningTasks() {
+        AsyncLogTask running = newTask();
+        running.transition(AsyncLogTask.Status.PENDING, AsyncLogTask.Status.IN_PROGRESS);
+        AsyncLogTask finished = newTask();
+        finished.setStatus(AsyncLogTask.Status.FAILED);
+        String runningId = registry.register(running);
+        String finishedId = registry.register(finished);
+
+        assertEquals(1, registry.evictFinishedBefore(Instant.now().plusSeconds(1)).size());
+        assertNull(registry.get(finishedId));
+        assertEquals(running, registry.get(runningId));
+    }
+}
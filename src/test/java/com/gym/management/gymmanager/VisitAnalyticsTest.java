@@ -0,0 +1,88 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gym.management.gymmanager.analytics.Granularity;
+import com.gym.management.gymmanager.analytics.VisitAnalytics;
+import com.gym.management.gymmanager.analytics.VisitKey;
+import com.gym.management.gymmanager.exception.ValidationException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VisitAnalyticsTest {
+    // 2025-04-01 18:00:00 UTC
+    private static final long SIX_PM = 1_743_530_400L;
+
+    private final VisitAnalytics analytics = new VisitAnalytics();
+
+    @Test
+    void testRecord_CountsPerEndpointAndGym() {
+        analytics.record(VisitKey.of("persons.get", 1L), SIX_PM);
+        analytics.record(VisitKey.of("persons.get", 2L), SIX_PM);
+        analytics.record(VisitKey.of("visit.track", null), SIX_PM + 61);
+
+        assertEquals(3, analytics.total(null, null));
+        assertEquals(2, analytics.total("persons.get", null));
+        assertEquals(1, analytics.total("persons.get", 2L));
+        assertArrayEquals(new long[] {2, 1},
+                analytics.series(null, null, Granularity.MINUTE, 2, SIX_PM + 61));
+    }
+
+    @Test
+    void testRateAndPercentiles_IgnoreCurrentMinute() {
+        for (int minute = 0; minute < 10; minute++) {
+            for (int i = 0; i <= minute; i++) {
+                analytics.record(VisitKey.of("persons.get", 1L), SIX_PM + minute * 60L);
+            }
+        }
+        long now = SIX_PM + 10 * 60;
+        analytics.record(VisitKey.of("persons.get", 1L), now);
+
+        assertEquals(5.5, analytics.ratePerInterval(null, null, Granularity.MINUTE, 10, now), 1e-9);
+        Map<String, Long> percentiles = analytics.percentiles(null, null, Granularity.MINUTE, 10, now);
+        assertEquals(5L, percentiles.get("p50"));
+        assertEquals(9L, percentiles.get("p90"));
+        assertEquals(10L, percentiles.get("max"));
+        assertThrows(ValidationException.class,
+                () -> analytics.percentiles(null, null, Granularity.MINUTE, VisitAnalytics.MINUTE_WINDOW, now));
+    }
+
+    @Test
+    void testUnpersistedMinutes_ReportsOnlyGrowthSinceCheckpoint() {
+        VisitKey key = VisitKey.of("persons.get", 1L);
+        analytics.restoreMinute(key, SIX_PM / 60, 5);
+        analytics.record(key, SIX_PM);
+        analytics.record(key, SIX_PM);
+
+        List<VisitAnalytics.MinuteCount> pending = analytics.unpersistedMinutes();
+        assertEquals(List.of(new VisitAnalytics.MinuteCount(key, SIX_PM / 60, 2)), pending);
+
+        analytics.markPersisted(pending);
+        assertTrue(analytics.unpersistedMinutes().isEmpty());
+        assertEquals(7, analytics.series("persons.get", 1L, Granularity.MINUTE, 1, SIX_PM)[0]);
+    }
+
+    @Test
+    void testRecord_ConcurrentIncrementsAreNotLost() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    analytics.record(VisitKey.of("persons.get", 1L), SIX_PM);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, analytics.total(null, null));
+        assertEquals(80_000, analytics.series(null, null, Granularity.HOUR, 1, SIX_PM)[0]);
+    }
+}
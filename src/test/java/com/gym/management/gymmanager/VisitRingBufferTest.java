@@ -0,0 +1,63 @@
+package com.gym.management.gymmanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.gym.management.gymmanager.ingest.VisitBatch;
+import com.gym.management.gymmanager.ingest.VisitRingBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VisitRingBufferTest {
+
+    @Test
+    void testOffer_DeliversEveryEventFromConcurrentProducers() throws InterruptedException {
+        VisitRingBuffer buffer = new VisitRingBuffer(1024);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            long personId = p + 1;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(personId, 0L, i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        long[] lastSeen = {-1, -1, -1, -1};
+        int received = 0;
+        VisitBatch batch = new VisitBatch(256);
+        while (received < producers * perProducer) {
+            buffer.drainTo(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                int producer = (int) batch.personId(i) - 1;
+                // События одного производителя приходят в порядке отправки
+                assertEquals(lastSeen[producer] + 1, batch.visitedAt(i));
+                lastSeen[producer] = batch.visitedAt(i);
+            }
+            received += batch.size();
+            batch.clear();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testOffer_RejectsWhenFull() {
+        VisitRingBuffer buffer = new VisitRingBuffer(2);
+        assertTrue(buffer.offer(1L, 0L, 1L));
+        assertTrue(buffer.offer(2L, 0L, 2L));
+        assertFalse(buffer.offer(3L, 0L, 3L));
+
+        VisitBatch batch = new VisitBatch(1);
+        assertEquals(1, buffer.drainTo(batch));
+        assertTrue(buffer.offer(3L, 0L, 3L));
+    }
+}